@@ -0,0 +1,62 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.book.BookResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧾 ApiResponseJsonBenchmark
+ * -----------------------------------------------------
+ * Serialización JSON de ApiResponse con la misma configuración base que Spring Boot
+ * (Jackson2ObjectMapperBuilder + fechas ISO en lugar de timestamps)
+ * ✅ size = libros en data (1 = respuesta de detalle, 100/1000 = listados)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<BookResponse>> response;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        List<BookResponse> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BookResponse book = new BookResponse();
+            book.setId((long) i + 1);
+            book.setTitle("Cien anios de soledad " + i);
+            book.setGenre("Novela");
+            book.setEditorial("Sudamericana");
+            book.setPublicationDate("1967-05-30");
+            book.setAuthorId(1L);
+            book.setAuthorName("Gabriel García Márquez");
+            books.add(book);
+        }
+        response = ApiResponse.ok("Libros obtenidos correctamente", books, "eyJpZCI6MTAwfQ");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
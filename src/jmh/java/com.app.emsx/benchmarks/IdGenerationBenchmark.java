@@ -0,0 +1,117 @@
+package com.app.emsx.benchmarks;
+
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🆔 IdGenerationBenchmark
+ * -----------------------------------------------------
+ * Inserción masiva con Hibernate contra H2 en memoria (modo MySQL), jdbc.batch_size = 50 como la app
+ * ✅ identity: @GeneratedValue(IDENTITY), el esquema anterior; Hibernate ejecuta un INSERT por fila
+ * ✅ pooled: @TableGenerator con allocationSize = 50 (id_sequences); los INSERT van en lotes JDBC
+ * ✅ rows = filas por transacción
+ * H2 no tiene latencia de red: contra MySQL la diferencia por ida y vuelta ahorrada es mayor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    @Entity(name = "IdentityRow")
+    @Table(name = "identity_rows")
+    public static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String title;
+        String genre;
+    }
+
+    @Entity(name = "PooledRow")
+    @Table(name = "pooled_rows")
+    public static class PooledRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooled_rows_id")
+        @TableGenerator(name = "pooled_rows_id", table = "id_sequences", pkColumnName = "seq_name",
+                valueColumnName = "next_val", pkColumnValue = "pooled_rows", allocationSize = 50)
+        Long id;
+        String title;
+        String genre;
+    }
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(PooledRow.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:id-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.POOL_SIZE, "4")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /** Las tablas no crecen entre iteraciones */
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("DELETE FROM IdentityRow").executeUpdate();
+            session.createMutationQuery("DELETE FROM PooledRow").executeUpdate();
+        });
+    }
+
+    @Benchmark
+    public long identity() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            IdentityRow last = null;
+            for (int i = 0; i < rows; i++) {
+                last = new IdentityRow();
+                last.title = "Libro " + i;
+                last.genre = "Novela";
+                session.persist(last);
+            }
+            session.getTransaction().commit();
+            return last.id;
+        }
+    }
+
+    @Benchmark
+    public long pooled() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            PooledRow last = null;
+            for (int i = 0; i < rows; i++) {
+                last = new PooledRow();
+                last.title = "Libro " + i;
+                last.genre = "Novela";
+                session.persist(last);
+            }
+            session.getTransaction().commit();
+            return last.id;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔑 JwtBenchmark
+ * -----------------------------------------------------
+ * ✅ generateToken: firma HS512 de un token nuevo (login)
+ * ✅ generateAndExtract: token nuevo + extractUsername (primera solicitud: verifica la firma y lo guarda en caché)
+ * ✅ extractUsernameCached: el mismo token otra vez (solicitudes siguientes: SHA-256 + caché)
+ * La clave sale de JWT_SECRET (el perfil benchmarks define una de prueba)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final int USERS = 1 << 16;
+
+    private JwtService jwtService;
+    private UserDetails[] users;
+    private String cachedToken;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), 10_000);
+        jwtService.initKey();
+        // Usuarios distintos: cada token nuevo tiene otro subject y no coincide con uno ya verificado
+        users = new UserDetails[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = User.withUsername("user" + i + "@mail.com")
+                    .password("x")
+                    .authorities("ROLE_ADMIN")
+                    .build();
+        }
+        cachedToken = jwtService.generateToken(users[0]);
+        jwtService.extractUsername(cachedToken);
+    }
+
+    private UserDetails nextUser() {
+        next = (next + 1) & (USERS - 1);
+        return users[next];
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(nextUser());
+    }
+
+    @Benchmark
+    public String generateAndExtract() {
+        return jwtService.extractUsername(jwtService.generateToken(nextUser()));
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return jwtService.extractUsername(cachedToken);
+    }
+}
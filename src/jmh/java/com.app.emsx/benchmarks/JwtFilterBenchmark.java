@@ -0,0 +1,120 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.security.JwtAuthenticationFilter;
+import com.app.emsx.security.JwtService;
+import com.app.emsx.security.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🛂 JwtFilterBenchmark
+ * -----------------------------------------------------
+ * ✅ JwtAuthenticationFilter completo por solicitud: cabecera Authorization → claims → principal → SecurityContext
+ * ✅ cached: el token y el principal salen de las cachés (solicitudes repetidas del mismo usuario)
+ * ✅ uncached: cachés de tamaño 0, cada solicitud verifica la firma y carga el principal con el UserDetailsService
+ * El UserDetailsService es un mapa en memoria: el costo de la BD no está incluido
+ * La clave sale de JWT_SECRET (el perfil benchmarks define una de prueba)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final int USERS = 1 << 10;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private MockHttpServletRequest[] requests;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        Map<String, UserDetails> users = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            UserDetails user = User.withUsername("user" + i + "@mail.com")
+                    .password("x")
+                    .authorities("ROLE_ADMIN")
+                    .build();
+            users.put(user.getUsername(), user);
+        }
+        UserDetailsService userDetailsService = username -> {
+            UserDetails user = users.get(username);
+            if (user == null) {
+                throw new UsernameNotFoundException(username);
+            }
+            return user;
+        };
+
+        JwtService cachedJwt = jwtService(10_000);
+        JwtService uncachedJwt = jwtService(0);
+        cachedFilter = new JwtAuthenticationFilter(cachedJwt, userDetailsService, new UserPrincipalCache(10_000, 300));
+        uncachedFilter = new JwtAuthenticationFilter(uncachedJwt, userDetailsService, new UserPrincipalCache(0, 300));
+
+        // Ambos JwtService comparten JWT_SECRET: el mismo token sirve para los dos filtros
+        requests = new MockHttpServletRequest[USERS];
+        int i = 0;
+        for (UserDetails user : users.values()) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + cachedJwt.generateToken(user));
+            requests[i++] = request;
+        }
+        response = new MockHttpServletResponse();
+
+        // Calienta las cachés del camino cached con todos los tokens
+        for (MockHttpServletRequest request : requests) {
+            filter(cachedFilter, request);
+        }
+    }
+
+    private static JwtService jwtService(long cacheMaxSize) {
+        JwtService jwtService = new JwtService(new SimpleMeterRegistry(), cacheMaxSize);
+        jwtService.initKey();
+        return jwtService;
+    }
+
+    private MockHttpServletRequest nextRequest() {
+        next = (next + 1) & (USERS - 1);
+        return requests[next];
+    }
+
+    /** Cada solicitud empieza sin autenticación, como un hilo nuevo del servidor */
+    private Object filter(JwtAuthenticationFilter filter, MockHttpServletRequest request) throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object cached() throws ServletException, IOException {
+        return filter(cachedFilter, nextRequest());
+    }
+
+    @Benchmark
+    public Object uncached() throws ServletException, IOException {
+        return filter(uncachedFilter, nextRequest());
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.dtos.author.AuthorResponse;
+import com.app.emsx.dtos.book.BookResponse;
+import com.app.emsx.dtos.loan.LoanResponse;
+import com.app.emsx.entities.Author;
+import com.app.emsx.entities.Book;
+import com.app.emsx.entities.Loan;
+import com.app.emsx.entities.Student;
+import com.app.emsx.mappers.AuthorMapper;
+import com.app.emsx.mappers.BookMapper;
+import com.app.emsx.mappers.LoanMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🗺️ MapperBenchmark
+ * -----------------------------------------------------
+ * Entity → DTO de los listados más usados (sin BD: entidades armadas en memoria)
+ * ✅ size = libros del listado y libros del autor (AuthorMapper recorre author.books)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private final LoanMapper loanMapper = Mappers.getMapper(LoanMapper.class);
+    private final BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+    private final AuthorMapper authorMapper = Mappers.getMapper(AuthorMapper.class);
+
+    private Loan loan;
+    private List<Book> books;
+    private Author author;
+
+    @Setup
+    public void setUp() {
+        author = new Author();
+        author.setId(1L);
+        author.setFirstName("Gabriel");
+        author.setLastName("García Márquez");
+        author.setEmail("gabo@mail.com");
+        author.setBirthDate(LocalDate.of(1927, 3, 6));
+
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle("Cien anios de soledad " + i);
+            book.setGenre("Novela");
+            book.setEditorial("Sudamericana");
+            book.setPublicationDate(LocalDate.of(1967, 5, 30).plusDays(i));
+            book.setAuthor(author);
+            books.add(book);
+        }
+        author.setBooks(books);
+
+        Student student = new Student();
+        student.setId(7L);
+        student.setFirstName("Ana");
+        student.setLastName("Torres");
+        loan = new Loan();
+        loan.setId(99L);
+        loan.setState("ACTIVE");
+        loan.setObservations("Sin observaciones");
+        loan.setDateLoan(LocalDate.of(2025, 1, 10));
+        loan.setDueDate(LocalDate.of(2025, 1, 24));
+        loan.setAmount(15.5);
+        loan.setStudent(student);
+        loan.setBook(books.get(0));
+    }
+
+    @Benchmark
+    public LoanResponse loanToResponse() {
+        return loanMapper.toResponse(loan);
+    }
+
+    @Benchmark
+    public List<BookResponse> bookToResponseList() {
+        return bookMapper.toResponseList(books);
+    }
+
+    @Benchmark
+    public AuthorResponse authorToResponseWithBooks() {
+        return authorMapper.toResponse(author);
+    }
+}
@@ -0,0 +1,210 @@
+package com.app.emsx.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🗂️ QueryIndexBenchmark
+ * -----------------------------------------------------
+ * Consultas de los repositorios contra H2 en memoria (modo MySQL) con las migraciones de Flyway
+ * ✅ indexed = false: solo V1 (claves primarias, UNIQUE y los índices de las FK)
+ * ✅ indexed = true: todas las migraciones (V2 agrega los índices compuestos de las consultas)
+ * ✅ El plan de cada consulta (EXPLAIN) se imprime al preparar el benchmark
+ * ✅ Cada operación consulta claves al azar: sin caché de resultados
+ * ✅ overdueChunk: H2 elige idx_loans_state_due_date para el rango de ids del barrido aunque la PK lea menos
+ *   filas; MySQL estima ambos rangos (index dives) y usa PRIMARY
+ * H2 no es InnoDB: los tiempos sirven para comparar con y sin índices, no como latencia de producción
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryIndexBenchmark {
+
+    private static final int AUTHORS = 1_000;
+    private static final int BOOKS = 20_000;
+    private static final int STUDENTS = 20_000;
+    private static final int LOANS = 200_000;
+    private static final int BATCH = 1_000;
+    private static final String[] STATES = {"ACTIVE", "OVERDUE", "RETURNED", "RETURNED"};
+
+    // LoanRepository.existsActiveByStudentAndBook
+    private static final String ACTIVE_BY_STUDENT_AND_BOOK =
+            "SELECT 1 FROM loans WHERE student_id = ? AND book_id = ? AND state IN ('ACTIVE', 'OVERDUE') LIMIT 1";
+    // LoanRepository.countActiveByBook
+    private static final String ACTIVE_BY_BOOK =
+            "SELECT COUNT(*) FROM loans WHERE book_id = ? AND state IN ('ACTIVE', 'OVERDUE')";
+    // OverdueLoanSweeper: filas de un rango de 1000 ids (mismo WHERE que su UPDATE)
+    private static final String OVERDUE_CHUNK =
+            "SELECT COUNT(*) FROM loans " +
+            "WHERE id > ? AND id <= ? AND state IN ('ACTIVE', 'OVERDUE') AND due_date < ?";
+    // BookRepository.findByTitleAndAuthorId
+    private static final String BOOK_BY_TITLE_AND_AUTHOR =
+            "SELECT id FROM books WHERE title = ? AND author_id = ?";
+    // StudentRepository.existsByPhone
+    private static final String STUDENT_BY_PHONE =
+            "SELECT 1 FROM students WHERE phone = ? LIMIT 1";
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement activeByStudentAndBook;
+    private PreparedStatement activeByBook;
+    private PreparedStatement overdueChunk;
+    private PreparedStatement bookByTitleAndAuthor;
+    private PreparedStatement studentByPhone;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LocalDate today = LocalDate.of(2025, 1, 1);
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:query-index-" + indexed + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        var flyway = Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration");
+        if (!indexed) {
+            flyway.target("1");
+        }
+        flyway.load().migrate();
+
+        connection = DriverManager.getConnection(url, "sa", "");
+        seed();
+        activeByStudentAndBook = connection.prepareStatement(ACTIVE_BY_STUDENT_AND_BOOK);
+        activeByBook = connection.prepareStatement(ACTIVE_BY_BOOK);
+        overdueChunk = connection.prepareStatement(OVERDUE_CHUNK);
+        bookByTitleAndAuthor = connection.prepareStatement(BOOK_BY_TITLE_AND_AUTHOR);
+        studentByPhone = connection.prepareStatement(STUDENT_BY_PHONE);
+
+        explain("activeByStudentAndBook", ACTIVE_BY_STUDENT_AND_BOOK.replaceFirst("\\?", "1").replaceFirst("\\?", "1"));
+        explain("activeByBook", ACTIVE_BY_BOOK.replace("?", "1"));
+        explain("overdueChunk", OVERDUE_CHUNK.replaceFirst("\\?", "0").replaceFirst("\\?", "1000")
+                .replaceFirst("\\?", "DATE '" + today + "'"));
+        explain("bookByTitleAndAuthor", BOOK_BY_TITLE_AND_AUTHOR.replaceFirst("\\?", "'Libro 1'").replaceFirst("\\?", "1"));
+        explain("studentByPhone", STUDENT_BY_PHONE.replace("?", "'600000001'"));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    private void seed() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement authors = connection.prepareStatement(
+                "INSERT INTO authors (id, first_name, last_name, email) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= AUTHORS; id++) {
+                authors.setLong(1, id);
+                authors.setString(2, "Nombre " + id);
+                authors.setString(3, "Apellido " + id);
+                authors.setString(4, "autor" + id + "@mail.com");
+                add(authors, id);
+            }
+        }
+        try (PreparedStatement books = connection.prepareStatement(
+                "INSERT INTO books (id, title, genre, author_id) VALUES (?, ?, 'Novela', ?)")) {
+            for (int id = 1; id <= BOOKS; id++) {
+                books.setLong(1, id);
+                books.setString(2, "Libro " + id);
+                books.setLong(3, 1 + id % AUTHORS);
+                add(books, id);
+            }
+        }
+        try (PreparedStatement students = connection.prepareStatement(
+                "INSERT INTO students (id, first_name, last_name, email, phone, codigo) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= STUDENTS; id++) {
+                students.setLong(1, id);
+                students.setString(2, "Nombre " + id);
+                students.setString(3, "Apellido " + id);
+                students.setString(4, "estudiante" + id + "@mail.com");
+                students.setString(5, String.valueOf(600_000_000 + id));
+                students.setString(6, "C" + id);
+                add(students, id);
+            }
+        }
+        try (PreparedStatement loans = connection.prepareStatement(
+                "INSERT INTO loans (id, state, date_loan, due_date, amount, student_id, book_id) VALUES (?, ?, ?, ?, 0, ?, ?)")) {
+            SplittableRandom seedRandom = new SplittableRandom(7);
+            for (int id = 1; id <= LOANS; id++) {
+                LocalDate dateLoan = today.minusDays(seedRandom.nextInt(365));
+                loans.setLong(1, id);
+                loans.setString(2, STATES[seedRandom.nextInt(STATES.length)]);
+                loans.setDate(3, Date.valueOf(dateLoan));
+                loans.setDate(4, Date.valueOf(dateLoan.plusDays(14)));
+                loans.setLong(5, 1 + seedRandom.nextInt(STUDENTS));
+                loans.setLong(6, 1 + seedRandom.nextInt(BOOKS));
+                add(loans, id);
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private static void add(PreparedStatement statement, int id) throws SQLException {
+        statement.addBatch();
+        if (id % BATCH == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    private void explain(String name, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            rs.next();
+            System.out.printf("%n[indexed=%s] %s:%n%s%n", indexed, name, rs.getString(1));
+        }
+    }
+
+    private static long first(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    @Benchmark
+    public long activeByStudentAndBook() throws SQLException {
+        activeByStudentAndBook.setLong(1, 1 + random.nextInt(STUDENTS));
+        activeByStudentAndBook.setLong(2, 1 + random.nextInt(BOOKS));
+        return first(activeByStudentAndBook);
+    }
+
+    @Benchmark
+    public long activeByBook() throws SQLException {
+        activeByBook.setLong(1, 1 + random.nextInt(BOOKS));
+        return first(activeByBook);
+    }
+
+    @Benchmark
+    public long overdueChunk() throws SQLException {
+        long from = random.nextInt(LOANS);
+        overdueChunk.setLong(1, from);
+        overdueChunk.setLong(2, from + 1000);
+        overdueChunk.setDate(3, Date.valueOf(today));
+        return first(overdueChunk);
+    }
+
+    @Benchmark
+    public long bookByTitleAndAuthor() throws SQLException {
+        int id = 1 + random.nextInt(BOOKS);
+        bookByTitleAndAuthor.setString(1, "Libro " + id);
+        bookByTitleAndAuthor.setLong(2, 1 + id % AUTHORS);
+        return first(bookByTitleAndAuthor);
+    }
+
+    @Benchmark
+    public long studentByPhone() throws SQLException {
+        studentByPhone.setString(1, String.valueOf(600_000_000 + 1 + random.nextInt(STUDENTS)));
+        return first(studentByPhone);
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.author.AuthorRequest;
+import com.app.emsx.dtos.book.BookRequest;
+import com.app.emsx.dtos.student.StudentRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📏 ValidationBenchmark
+ * -----------------------------------------------------
+ * Costo por solicitud de las reglas de campo de create/update (RULES de cada servicio)
+ * ✅ valid*: el caso común, sin violaciones (no debería crear objetos)
+ * ✅ invalid*: varias violaciones en la misma solicitud (se informan todas)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final StudentRequest validStudent = StudentRequest.builder()
+            .firstName("Ana María").lastName("Torres").email("ana.torres@universidad.edu")
+            .phone("98765432").career("Ingeniería de Sistemas").codigo("ABC1234567").build();
+
+    private final StudentRequest invalidStudent = StudentRequest.builder()
+            .firstName(" A").lastName("Torres").email("an@universidad.edu")
+            .phone(" 9876543").career("Ingeniería de Sistemas").codigo("AB12345678").build();
+
+    private final AuthorRequest validAuthor = AuthorRequest.builder()
+            .firstName("Gabriel").lastName("García Márquez").email("gabo.garcia@mail.com")
+            .birthDate("1927-03-06").build();
+
+    private final AuthorRequest invalidAuthor = AuthorRequest.builder()
+            .firstName("Gabriel").lastName("García Márquez").email("gabo.garcia@mail.c0m")
+            .birthDate("2999-01-01").build();
+
+    private final BookRequest validBook = BookRequest.builder()
+            .title("Cien anios").genre("Novela").editorial("Sudamericana")
+            .publicationDate("1967-05-30").authorId(1L).build();
+
+    private final BookRequest invalidBook = BookRequest.builder()
+            .title("Cien anios 2").genre("Novela").editorial("Sudamericana")
+            .publicationDate("1967-13-30").authorId(1L).build();
+
+    @Benchmark
+    public List<String> validStudent() {
+        return StudentServiceImpl.RULES.validate(validStudent);
+    }
+
+    @Benchmark
+    public List<String> invalidStudent() {
+        return StudentServiceImpl.RULES.validate(invalidStudent);
+    }
+
+    @Benchmark
+    public List<String> validAuthor() {
+        return AuthorServiceImpl.RULES.validate(validAuthor);
+    }
+
+    @Benchmark
+    public List<String> invalidAuthor() {
+        return AuthorServiceImpl.RULES.validate(invalidAuthor);
+    }
+
+    @Benchmark
+    public List<String> validBook() {
+        return BookServiceImpl.RULES.validate(validBook);
+    }
+
+    @Benchmark
+    public List<String> invalidBook() {
+        return BookServiceImpl.RULES.validate(invalidBook);
+    }
+}
@@ -0,0 +1,230 @@
+package com.app.emsx.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🥊 ContentionCheck (loadtest.scenario=contention)
+ * -----------------------------------------------------
+ * ✅ Antes de medir, loadtest.contention.warmup-loans préstamos y devoluciones de a uno sobre el libro book-id + 1
+ * ✅ Cientos de hilos piden préstamos del mismo libro a la vez (un estudiante distinto por hilo):
+ *   solo pueden tener éxito tantos como copias haya, el resto recibe 409
+ * ✅ Segunda ronda: devoluciones de esos préstamos mezcladas con préstamos nuevos del mismo libro
+ * ✅ Al final el inventario debe cumplir available + borrowed == total, available >= 0
+ *   y borrowed == préstamos ACTIVE/OVERDUE del libro
+ * ✅ En la ronda 1 tienen éxito exactamente min(hilos, copias) préstamos; cada respuesta distinta de 2xx/409
+ *   (ej. 5xx por pool agotado) puede restar a lo sumo uno
+ * ✅ Más de loadtest.contention.max-error-rate de respuestas distintas de 2xx/409 también falla: con el pool
+ *   agotado no se puede distinguir un límite de rendimiento de un error de conteo
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class ContentionCheck {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.contention.threads}")
+    private int threads;
+
+    @Value("${loadtest.contention.copies}")
+    private int copies;
+
+    @Value("${loadtest.contention.book-id}")
+    private long bookId;
+
+    @Value("${loadtest.contention.max-error-rate}")
+    private double maxErrorRate;
+
+    @Value("${loadtest.contention.warmup-loans}")
+    private int warmupLoans;
+
+    @Value("${loadtest.seed.students}")
+    private int students;
+
+    @Value("${loadtest.request-timeout-ms}")
+    private long requestTimeoutMs;
+
+    @Value("${loadtest.seed.user-email}")
+    private String userEmail;
+
+    @Value("${loadtest.seed.user-password}")
+    private String userPassword;
+
+    /** Resultado de una ronda: 2xx, 409 y cualquier otro estado */
+    private record Round(long ok, long conflicts, long errors) {
+        long total() {
+            return ok + conflicts + errors;
+        }
+    }
+
+    /**
+     * ✅ Ejecuta las dos rondas y verifica el inventario; retorna false si alguna condición no se cumple
+     */
+    public boolean run(int port) throws IOException, InterruptedException {
+        if (students < 2 * threads + warmupLoans) {
+            throw new IllegalStateException(
+                    "loadtest.seed.students debe ser al menos 2 x loadtest.contention.threads + loadtest.contention.warmup-loans");
+        }
+        // Libro sin préstamos abiertos y con exactamente `copies` copias
+        jdbcTemplate.update("UPDATE loans SET state = 'RETURNED' WHERE book_id = ? AND state IN ('ACTIVE', 'OVERDUE')", bookId);
+        jdbcTemplate.update("UPDATE inventory SET total_copies = ?, available_copies = ?, borrowed_copies = 0 WHERE book_id = ?",
+                copies, copies, bookId);
+
+        LoadTestApi api = new LoadTestApi(port, objectMapper, requestTimeoutMs);
+        api.login(userEmail, userPassword);
+        warmUp(api);
+        log.info("Contención: {} hilos sobre el libro {} con {} copias", threads, bookId, copies);
+
+        // 1️⃣ Todos piden la misma copia al mismo tiempo
+        Queue<Long> loans = new ConcurrentLinkedQueue<>();
+        List<Callable<Integer>> checkouts = new ArrayList<>();
+        for (int i = 1; i <= threads; i++) {
+            long studentId = i;
+            checkouts.add(() -> checkout(api, studentId, bookId, loans));
+        }
+        Round first = race(checkouts);
+        log.info("Ronda 1 (préstamos): {} ok, {} sin copias (409), {} otros", first.ok(), first.conflicts(), first.errors());
+
+        // 2️⃣ Devoluciones y préstamos nuevos compitiendo por las mismas copias
+        List<Callable<Integer>> mixed = new ArrayList<>();
+        for (Long loanId : loans) {
+            mixed.add(() -> giveBack(api, loanId));
+        }
+        for (int i = threads + 1; i <= 2 * threads; i++) {
+            long studentId = i;
+            mixed.add(() -> checkout(api, studentId, bookId, new ConcurrentLinkedQueue<>()));
+        }
+        Round second = race(mixed);
+        log.info("Ronda 2 (devoluciones + préstamos): {} ok, {} 409, {} otros", second.ok(), second.conflicts(), second.errors());
+
+        Map<String, Object> inventory = jdbcTemplate.queryForMap(
+                "SELECT total_copies, available_copies, borrowed_copies FROM inventory WHERE book_id = ?", bookId);
+        int total = ((Number) inventory.get("total_copies")).intValue();
+        int available = ((Number) inventory.get("available_copies")).intValue();
+        int borrowed = ((Number) inventory.get("borrowed_copies")).intValue();
+        Long open = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM loans WHERE book_id = ? AND state IN ('ACTIVE', 'OVERDUE')", Long.class, bookId);
+
+        List<String> failures = new ArrayList<>();
+        // Un 5xx (ej. sin conexión libre en el pool tras connection-timeout) puede dejar sin usar a lo sumo una copia
+        int expected = Math.min(threads, copies);
+        if (first.ok() > expected || first.ok() < expected - first.errors()) {
+            failures.add("ronda 1: " + first.ok() + " préstamos exitosos, se esperaban " + expected);
+        }
+        long errors = first.errors() + second.errors();
+        long requests = first.total() + second.total();
+        if (errors > maxErrorRate * requests) {
+            failures.add(errors + " de " + requests + " respuestas distintas de 2xx/409 (máximo "
+                    + String.format(Locale.ROOT, "%.1f", maxErrorRate * 100) + " %)");
+        } else if (errors > 0) {
+            log.warn("Respuestas distintas de 2xx/409: {} de {}", errors, requests);
+        }
+        if (available < 0) {
+            failures.add("available = " + available + " < 0");
+        }
+        if (available + borrowed != total) {
+            failures.add("available + borrowed = " + (available + borrowed) + " != total = " + total);
+        }
+        if (open == null || borrowed != open) {
+            failures.add("borrowed = " + borrowed + " != préstamos abiertos = " + open);
+        }
+        if (failures.isEmpty()) {
+            log.info("Contención OK: total={}, available={}, borrowed={}, préstamos abiertos={}", total, available, borrowed, open);
+            return true;
+        }
+        log.error("Contención FALLIDA: {}", String.join("; ", failures));
+        return false;
+    }
+
+    /**
+     * Préstamos y devoluciones de a uno sobre otro libro: la ronda 1 no debe medir la primera ejecución
+     * (JIT, planes de Hibernate) del camino de préstamo con cientos de solicitudes a la vez
+     */
+    private void warmUp(LoadTestApi api) throws IOException, InterruptedException {
+        long warmupBookId = bookId + 1;
+        jdbcTemplate.update("UPDATE inventory SET total_copies = total_copies + ?, available_copies = available_copies + ? WHERE book_id = ?",
+                warmupLoans, warmupLoans, warmupBookId);
+        Queue<Long> loans = new ConcurrentLinkedQueue<>();
+        for (int i = 1; i <= warmupLoans; i++) {
+            checkout(api, 2L * threads + i, warmupBookId, loans);
+        }
+        for (Long loanId : loans) {
+            giveBack(api, loanId);
+        }
+        log.info("Calentamiento: {} préstamos y devoluciones sobre el libro {}", loans.size(), warmupBookId);
+    }
+
+    private int giveBack(LoadTestApi api, long loanId) throws IOException, InterruptedException {
+        return api.post("/api/returns", Map.of(
+                "loanId", loanId,
+                "dateReturn", LocalDate.now().toString(),
+                "penalty", 0)).statusCode();
+    }
+
+    private int checkout(LoadTestApi api, long studentId, long bookId, Queue<Long> loans) throws IOException, InterruptedException {
+        LocalDate today = LocalDate.now();
+        HttpResponse<byte[]> response = api.post("/api/loans", Map.of(
+                "studentId", studentId,
+                "bookId", bookId,
+                "dateLoan", today.toString(),
+                "dueDate", today.plusDays(7).toString(),
+                "amount", 0,
+                "state", "ACTIVE"));
+        if (response.statusCode() == 200) {
+            loans.add(api.data(response).path("id").asLong());
+        }
+        return response.statusCode();
+    }
+
+    /** Un hilo por tarea; todas esperan la misma señal de salida */
+    private Round race(List<Callable<Integer>> tasks) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder ok = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder errors = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        for (Callable<Integer> task : tasks) {
+            pool.execute(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    int status = task.call();
+                    if (status >= 200 && status < 300) ok.increment();
+                    else if (status == 409) conflicts.increment();
+                    else errors.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    errors.increment();
+                }
+            });
+        }
+        ready.await();
+        start.countDown();
+        pool.shutdown();
+        if (!pool.awaitTermination(requestTimeoutMs * 2, TimeUnit.MILLISECONDS)) {
+            pool.shutdownNow();
+        }
+        return new Round(ok.sum(), conflicts.sum(), errors.sum());
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.emsx.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 🔌 LoadTestApi
+ * -----------------------------------------------------
+ * ✅ Cliente HTTP mínimo de las verificaciones (contention, sql-budget): un solo token para todas las solicitudes
+ */
+final class LoadTestApi {
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration timeout;
+    private String token;
+
+    LoadTestApi(int port, ObjectMapper objectMapper, long timeoutMs) {
+        this.baseUrl = "http://localhost:" + port;
+        this.objectMapper = objectMapper;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    void login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = post("/api/auth/login", Map.of("email", email, "password", password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login fallido: HTTP " + response.statusCode());
+        }
+        token = data(response).path("token").asText(null);
+    }
+
+    HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    HttpResponse<byte[]> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    JsonNode data(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body()).path("data");
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
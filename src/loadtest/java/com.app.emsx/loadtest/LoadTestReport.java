@@ -0,0 +1,119 @@
+package com.app.emsx.loadtest;
+
+import com.app.emsx.loadtest.TrafficDriver.EndpointStats;
+import com.app.emsx.loadtest.TrafficDriver.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 📊 LoadTestReport
+ * -----------------------------------------------------
+ * ✅ Por operación: solicitudes, throughput (req/s), p50/p99/p999/máx (ms), rechazos 4xx y tasa de error
+ * ✅ Tabla en el log y JSON para comparar entre versiones
+ * ✅ threads: modo en que corrieron las solicitudes (platform | virtual)
+ * ✅ logComparison: dos reportes lado a lado (escenario threading)
+ */
+@Slf4j
+record LoadTestReport(String threads, int concurrency, int durationSeconds,
+                      List<EndpointResult> endpoints, EndpointResult total) {
+
+    record EndpointResult(String operation, String endpoint, long requests, double throughput,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs,
+                          long ok, long rejected, long errors, double errorRate) {
+
+        static EndpointResult of(String operation, String endpoint, Histogram histogram,
+                                 long ok, long rejected, long errors, int durationSeconds) {
+            long requests = ok + rejected + errors;
+            return new EndpointResult(operation, endpoint, requests,
+                    round((double) requests / durationSeconds),
+                    millis(histogram, 50.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                    round(histogram.getMaxValue() / 1000.0),
+                    ok, rejected, errors,
+                    requests == 0 ? 0 : round((double) errors / requests));
+        }
+    }
+
+    static LoadTestReport of(Map<Operation, EndpointStats> stats, String threads, int concurrency, int durationSeconds) {
+        List<EndpointResult> endpoints = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long ok = 0, rejected = 0, errors = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats s = entry.getValue();
+            if (s.latencyMicros.getTotalCount() == 0) continue;
+            endpoints.add(EndpointResult.of(entry.getKey().key, entry.getKey().endpoint, s.latencyMicros,
+                    s.ok.sum(), s.rejected.sum(), s.errors.sum(), durationSeconds));
+            all.add(s.latencyMicros);
+            ok += s.ok.sum();
+            rejected += s.rejected.sum();
+            errors += s.errors.sum();
+        }
+        return new LoadTestReport(threads, concurrency, durationSeconds, endpoints,
+                EndpointResult.of("total", "*", all, ok, rejected, errors, durationSeconds));
+    }
+
+    void log() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-14s %-30s %9s %9s %9s %9s %9s %9s %8s %8s%n",
+                "operación", "endpoint", "req", "req/s", "p50 ms", "p99 ms", "p999 ms", "máx ms", "4xx", "error %"));
+        for (EndpointResult r : endpoints) {
+            row(table, r);
+        }
+        row(table, total);
+        log.info("Resultado con {} usuarios durante {} s (hilos {}):{}", concurrency, durationSeconds, threads, table);
+    }
+
+    /** Por operación: req/s, p50, p99 y error % de cada reporte, uno junto al otro (columnas con su etiqueta) */
+    static void logComparison(String leftLabel, LoadTestReport left, String rightLabel, LoadTestReport right) {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-14s %19s %19s %19s %19s%n",
+                "operación", "req/s", "p50 ms", "p99 ms", "error %"));
+        table.append(String.format(Locale.ROOT, "%-14s %9s %9s %9s %9s %9s %9s %9s %9s%n", "",
+                leftLabel, rightLabel, leftLabel, rightLabel, leftLabel, rightLabel, leftLabel, rightLabel));
+        Map<String, EndpointResult> others = new LinkedHashMap<>();
+        right.endpoints().forEach(r -> others.put(r.operation(), r));
+        others.put(right.total().operation(), right.total());
+        List<EndpointResult> rows = new ArrayList<>(left.endpoints());
+        rows.add(left.total());
+        for (EndpointResult l : rows) {
+            EndpointResult r = others.get(l.operation());
+            if (r == null) continue;
+            table.append(String.format(Locale.ROOT, "%-14s %9.1f %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    l.operation(), l.throughput(), r.throughput(), l.p50Ms(), r.p50Ms(),
+                    l.p99Ms(), r.p99Ms(), l.errorRate() * 100, r.errorRate() * 100));
+        }
+        log.info("Comparación con {} usuarios durante {} s:{}", left.concurrency(), left.durationSeconds(), table);
+    }
+
+    private static void row(StringBuilder table, EndpointResult r) {
+        table.append(String.format(Locale.ROOT, "%-14s %-30s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %8d %8.2f%n",
+                r.operation(), r.endpoint(), r.requests(), r.throughput(),
+                r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs(), r.rejected(), r.errorRate() * 100));
+    }
+
+    void write(Path path, ObjectMapper objectMapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+        log.info("Reporte JSON: {}", path.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,151 @@
+package com.app.emsx.loadtest;
+
+import com.app.emsx.EmsxApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 🏋️ LoadTestRunner
+ * -----------------------------------------------------
+ * ✅ Arranca la app con el perfil "loadtest" (H2 en modo MySQL + datos de LoadTestSeeder),
+ *   ejecuta TrafficDriver contra el puerto real, publica el reporte y detiene la app
+ * ✅ Los argumentos son propiedades de Spring: --loadtest.concurrency=64 --loadtest.duration-seconds=120 ...
+ * ✅ --loadtest.scenario elige qué se ejecuta:
+ *   mixed (por defecto) = tráfico mixto con reporte por endpoint;
+ *   contention = ContentionCheck (préstamos concurrentes del mismo libro; código de salida 1 si falla);
+ *   sql-budget = SqlBudgetCheck (sentencias SQL constantes por listado/detalle; código de salida 1 si falla);
+ *   threading = tráfico mixto dos veces, con hilos de plataforma y con hilos virtuales (cada una con su propia BD),
+ *   y comparación lado a lado (los hilos virtuales requieren Java 21+)
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) {
+        String scenario = Objects.requireNonNullElse(
+                new SimpleCommandLinePropertySource(args).getProperty("loadtest.scenario"), "mixed");
+        int exitCode = switch (scenario) {
+            case "mixed" -> mixed(args);
+            case "contention" -> check(args, (context, port) -> context.getBean(ContentionCheck.class).run(port));
+            // Cabeceras X-Sql-* y 500 al exceder el presupuesto
+            case "sql-budget" -> check(withDefaults(args, "--sql.stats.headers=true", "--sql.budget.mode=fail"),
+                    (context, port) -> context.getBean(SqlBudgetCheck.class).run(port));
+            case "threading" -> threading(args);
+            default -> {
+                log.error("loadtest.scenario desconocido: {} (mixed | contention | sql-budget | threading)", scenario);
+                yield 2;
+            }
+        };
+        // Los hilos de @Scheduled y SSE mantendrían viva la JVM
+        System.exit(exitCode);
+    }
+
+    private static int mixed(String[] args) {
+        try {
+            traffic(args, null);
+            return 0;
+        } catch (Exception e) {
+            log.error("La prueba de carga no pudo completarse", e);
+            return 1;
+        }
+    }
+
+    private static int threading(String[] args) {
+        try {
+            LoadTestReport platform = traffic(withThreads(args, "platform", false), "platform");
+            LoadTestReport virtual = traffic(withThreads(args, "virtual", true), "virtual");
+            LoadTestReport.logComparison("platform", platform, "virtual", virtual);
+            if (!"virtual".equals(virtual.threads())) {
+                log.warn("Los hilos virtuales no se activaron (JVM actual: {}; requieren Java 21+): "
+                        + "ambas corridas usaron hilos de plataforma", Runtime.version().feature());
+            }
+            return 0;
+        } catch (Exception e) {
+            log.error("La comparación de hilos no pudo completarse", e);
+            return 1;
+        }
+    }
+
+    /** Mismos argumentos con el modo de hilos fijado y una BD en memoria propia */
+    private static String[] withThreads(String[] args, String mode, boolean virtual) {
+        List<String> all = new ArrayList<>(List.of(args));
+        all.add("--spring.threads.virtual.enabled=" + virtual);
+        all.add("--loadtest.db-name=lms-loadtest-" + mode);
+        return all.toArray(String[]::new);
+    }
+
+    /** Tráfico mixto con reporte; suffix != null agrega -suffix al nombre del JSON */
+    private static LoadTestReport traffic(String[] args, String suffix) throws Exception {
+        ConfigurableApplicationContext context = start(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var environment = context.getEnvironment();
+            var stats = context.getBean(TrafficDriver.class).run(port);
+
+            LoadTestReport report = LoadTestReport.of(stats,
+                    Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform",
+                    environment.getRequiredProperty("loadtest.concurrency", Integer.class),
+                    environment.getRequiredProperty("loadtest.duration-seconds", Integer.class));
+            report.log();
+            String path = environment.getRequiredProperty("loadtest.report");
+            if (suffix != null) {
+                path = path.endsWith(".json") ? path.substring(0, path.length() - 5) + "-" + suffix + ".json" : path + "-" + suffix;
+            }
+            report.write(Path.of(path), context.getBean(ObjectMapper.class));
+            return report;
+        } finally {
+            SpringApplication.exit(context);
+        }
+    }
+
+    /** Verificación con resultado pasa/falla sobre la app ya iniciada */
+    @FunctionalInterface
+    private interface Check {
+        boolean run(ConfigurableApplicationContext context, int port) throws Exception;
+    }
+
+    private static int check(String[] args, Check check) {
+        ConfigurableApplicationContext context = start(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return check.run(context, port) ? 0 : 1;
+        } catch (Exception e) {
+            log.error("La verificación no pudo completarse", e);
+            return 1;
+        } finally {
+            SpringApplication.exit(context);
+        }
+    }
+
+    /** Agrega --clave=valor solo si la clave no vino en los argumentos */
+    private static String[] withDefaults(String[] args, String... defaults) {
+        SimpleCommandLinePropertySource given = new SimpleCommandLinePropertySource(args);
+        List<String> all = new ArrayList<>(List.of(args));
+        for (String option : defaults) {
+            String key = option.substring(2, option.indexOf('='));
+            if (!given.containsProperty(key)) {
+                all.add(option);
+            }
+        }
+        return all.toArray(String[]::new);
+    }
+
+    private static ConfigurableApplicationContext start(String[] args) {
+        return new SpringApplicationBuilder(EmsxApplication.class)
+                .profiles("loadtest")
+                .run(args);
+    }
+}
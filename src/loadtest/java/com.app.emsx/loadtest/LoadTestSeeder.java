@@ -0,0 +1,241 @@
+package com.app.emsx.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 🌱 LoadTestSeeder
+ * -----------------------------------------------------
+ * ✅ Callback de Flyway (AFTER_MIGRATE): inserta los datos sintéticos antes de que arranquen
+ *   JPA, IdSequenceInitializer y los índices en memoria (búsqueda, dashboard, unicidad),
+ *   así todos se cargan desde una base ya poblada, igual que en producción
+ * ✅ Cantidades configurables (loadtest.seed.*); JDBC por lotes, una transacción
+ * ✅ Solo si la base está vacía
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestSeeder implements Callback {
+
+    private static final int BATCH = 1000;
+    private static final String[] GENRES = {"Novela", "Ensayo", "Poesia", "Historia", "Ciencia", "Fantasia", "Drama"};
+    private static final String[] WORDS = {"sombra", "viento", "ciudad", "memoria", "rio", "noche", "camino", "mar"};
+    private static final String[] CAREERS = {"Ingenieria de Sistemas", "Derecho", "Medicina", "Arquitectura", "Economia"};
+
+    @Value("${loadtest.seed.authors}")
+    private int authors;
+
+    @Value("${loadtest.seed.books}")
+    private int books;
+
+    @Value("${loadtest.seed.copies-per-book}")
+    private int copiesPerBook;
+
+    @Value("${loadtest.seed.students}")
+    private int students;
+
+    @Value("${loadtest.seed.loans}")
+    private int loans;
+
+    @Value("${loadtest.seed.user-email}")
+    private String userEmail;
+
+    @Value("${loadtest.seed.user-password}")
+    private String userPassword;
+
+    /** Palabra de los títulos sembrados (para las búsquedas del tráfico) */
+    static String word(int i) {
+        return WORDS[i % WORDS.length];
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "loadtest-seed";
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection connection = context.getConnection();
+        try {
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM students")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    log.info("La base ya tiene datos: no se siembra");
+                    return;
+                }
+            }
+            long start = System.currentTimeMillis();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            seedUser(connection);
+            seedAuthors(connection);
+            seedBooks(connection);
+            seedStudents(connection);
+            int seededLoans = seedLoans(connection);
+            connection.commit();
+            connection.setAutoCommit(autoCommit);
+            log.info("Datos sintéticos: {} autores, {} libros ({} copias c/u), {} estudiantes, {} préstamos en {} ms",
+                    authors, books, copiesPerBook, students, seededLoans, System.currentTimeMillis() - start);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron sembrar los datos de la prueba de carga", e);
+        }
+    }
+
+    private void seedUser(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO users (id, firstname, lastname, email, password, role) VALUES (1, ?, ?, ?, ?, ?)")) {
+            ps.setString(1, "Load");
+            ps.setString(2, "Test");
+            ps.setString(3, userEmail);
+            ps.setString(4, new BCryptPasswordEncoder().encode(userPassword));
+            ps.setString(5, "ROLE_ADMIN");
+            ps.executeUpdate();
+        }
+    }
+
+    private void seedAuthors(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO authors (id, first_name, last_name, email, birth_date) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= authors; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "Autor");
+                ps.setString(3, "Numero " + i);
+                ps.setString(4, "autor" + i + "@mail.com");
+                ps.setDate(5, Date.valueOf(LocalDate.of(1940, 1, 1).plusDays(i % 15_000)));
+                add(ps, i);
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void seedBooks(Connection connection) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement book = connection.prepareStatement(
+                "INSERT INTO books (id, title, genre, publication_date, editorial, author_id) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement inventory = connection.prepareStatement(
+                     "INSERT INTO inventory (id, total_copies, available_copies, borrowed_copies, observations, last_updated, book_id)"
+                             + " VALUES (?, ?, ?, 0, NULL, ?, ?)")) {
+            for (int i = 1; i <= books; i++) {
+                book.setLong(1, i);
+                book.setString(2, "Libro " + i + " " + word(i));
+                book.setString(3, GENRES[i % GENRES.length]);
+                book.setDate(4, Date.valueOf(LocalDate.of(2000, 1, 1).plusDays(i % 9_000)));
+                book.setString(5, "Editorial " + (i % 50));
+                book.setLong(6, 1 + (i % authors));
+                add(book, i);
+
+                inventory.setLong(1, i);
+                inventory.setInt(2, copiesPerBook);
+                inventory.setInt(3, copiesPerBook);
+                inventory.setTimestamp(4, Timestamp.valueOf(now));
+                inventory.setLong(5, i);
+                add(inventory, i);
+            }
+            book.executeBatch();
+            inventory.executeBatch();
+        }
+    }
+
+    private void seedStudents(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO students (id, first_name, last_name, email, phone, career, codigo) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= students; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "Estudiante");
+                ps.setString(3, "Numero " + i);
+                ps.setString(4, "estudiante" + i + "@universidad.edu");
+                ps.setString(5, String.format("9%07d", i));
+                ps.setString(6, CAREERS[i % CAREERS.length]);
+                ps.setString(7, String.format("LTS%07d", i));
+                add(ps, i);
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Préstamos pares ACTIVE (descuentan inventario, sin repetir estudiante+libro) e impares RETURNED
+     * con su devolución, repartidos en los últimos 180 días para la tendencia del dashboard
+     */
+    private int seedLoans(Connection connection) throws SQLException {
+        LocalDate today = LocalDate.now();
+        int[] borrowed = new int[books + 1];
+        Set<Long> activePairs = new HashSet<>();
+        int seeded = 0;
+        try (PreparedStatement loan = connection.prepareStatement(
+                "INSERT INTO loans (id, state, observations, date_loan, amount, due_date, provisional_penalty, student_id, book_id)"
+                        + " VALUES (?, ?, NULL, ?, 0, ?, NULL, ?, ?)");
+             PreparedStatement ret = connection.prepareStatement(
+                     "INSERT INTO returns (id, date_return, observations, penalty, loan_id) VALUES (?, ?, NULL, 0, ?)")) {
+            for (int i = 1; i <= loans; i++) {
+                int bookId = 1 + (i % books);
+                int studentId = 1 + (int) ((i * 7919L) % students);
+                boolean active = i % 2 == 0;
+                if (active && (borrowed[bookId] >= copiesPerBook - 1
+                        || !activePairs.add((long) studentId * (books + 1) + bookId))) {
+                    continue; // Se deja al menos una copia libre por libro para el tráfico
+                }
+                LocalDate dateLoan = active ? today.minusDays(i % 7) : today.minusDays(7 + i % 173);
+                loan.setLong(1, i);
+                loan.setString(2, active ? "ACTIVE" : "RETURNED");
+                loan.setDate(3, Date.valueOf(dateLoan));
+                loan.setDate(4, Date.valueOf(dateLoan.plusDays(7)));
+                loan.setLong(5, studentId);
+                loan.setLong(6, bookId);
+                add(loan, ++seeded);
+                if (active) {
+                    borrowed[bookId]++;
+                } else {
+                    ret.setLong(1, i);
+                    ret.setDate(2, Date.valueOf(dateLoan.plusDays(i % 7)));
+                    ret.setLong(3, i);
+                    add(ret, i);
+                }
+            }
+            loan.executeBatch();
+            ret.executeBatch();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE inventory SET available_copies = total_copies - ?, borrowed_copies = ? WHERE book_id = ?")) {
+            for (int bookId = 1; bookId <= books; bookId++) {
+                if (borrowed[bookId] == 0) continue;
+                ps.setInt(1, borrowed[bookId]);
+                ps.setInt(2, borrowed[bookId]);
+                ps.setLong(3, bookId);
+                add(ps, bookId);
+            }
+            ps.executeBatch();
+        }
+        return seeded;
+    }
+
+    private static void add(PreparedStatement ps, int row) throws SQLException {
+        ps.addBatch();
+        if (row % BATCH == 0) {
+            ps.executeBatch();
+        }
+    }
+}
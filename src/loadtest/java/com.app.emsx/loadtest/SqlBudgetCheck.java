@@ -0,0 +1,123 @@
+package com.app.emsx.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 🧾 SqlBudgetCheck (loadtest.scenario=sql-budget)
+ * -----------------------------------------------------
+ * ✅ Detecta regresiones N+1: cuenta las sentencias SQL de cada listado y detalle con la cabecera
+ *   X-Sql-Statements (SqlBudgetFilter; el escenario activa sql.stats.headers y sql.budget.mode=fail)
+ * ✅ Listados: la página de 1 fila, la de loadtest.sql-budget.page-size filas y la lista completa
+ *   deben costar las mismas sentencias
+ * ✅ Detalles: el primer y el último ID de cada tabla deben costar las mismas sentencias
+ * ✅ Cualquier respuesta distinta de 200 (ej. 500 por presupuesto excedido) también falla
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class SqlBudgetCheck {
+
+    /** Recurso de la API → tabla de la que salen los IDs de detalle */
+    private static final String[][] RESOURCES = {
+            {"authors", "authors"},
+            {"books", "books"},
+            {"students", "students"},
+            {"loans", "loans"},
+            {"returns", "returns"},
+            {"inventory", "inventory"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.sql-budget.page-size}")
+    private int pageSize;
+
+    @Value("${loadtest.request-timeout-ms}")
+    private long requestTimeoutMs;
+
+    @Value("${loadtest.seed.user-email}")
+    private String userEmail;
+
+    @Value("${loadtest.seed.user-password}")
+    private String userPassword;
+
+    /**
+     * ✅ Recorre todos los listados y detalles; retorna false si alguno no cumple
+     */
+    public boolean run(int port) throws IOException, InterruptedException {
+        LoadTestApi api = new LoadTestApi(port, objectMapper, requestTimeoutMs);
+        api.login(userEmail, userPassword);
+        // La primera solicitud autenticada carga el usuario; no debe sumarse al primer endpoint medido
+        statements(api, "/api/dashboard/stats", new ArrayList<>());
+
+        List<String> failures = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-34s %10s%n", "endpoint", "sentencias"));
+        for (String[] resource : RESOURCES) {
+            String base = "/api/" + resource[0];
+            String one = base + "?size=1";
+            String page = base + "?size=" + pageSize;
+
+            long onePage = statements(api, one, failures);
+            long fullPage = statements(api, page, failures);
+            long all = statements(api, base, failures);
+            row(table, one, onePage);
+            row(table, page, fullPage);
+            row(table, base, all);
+            if (fullPage != onePage || all != onePage) {
+                failures.add(base + ": " + onePage + " sentencias con 1 fila, " + fullPage + " con " + pageSize
+                        + " y " + all + " con la lista completa");
+            }
+
+            Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + resource[1], Long.class);
+            Long last = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + resource[1], Long.class);
+            if (first == null || last == null) {
+                failures.add(base + ": la tabla " + resource[1] + " está vacía");
+                continue;
+            }
+            long firstDetail = statements(api, base + "/" + first, failures);
+            long lastDetail = statements(api, base + "/" + last, failures);
+            row(table, base + "/" + first, firstDetail);
+            row(table, base + "/" + last, lastDetail);
+            if (firstDetail != lastDetail) {
+                failures.add(base + "/{id}: " + firstDetail + " sentencias para " + first + " y " + lastDetail + " para " + last);
+            }
+        }
+        log.info("Sentencias SQL por solicitud:{}", table);
+
+        if (failures.isEmpty()) {
+            log.info("Presupuesto SQL OK: ningún listado ni detalle crece con el número de filas");
+            return true;
+        }
+        log.error("Presupuesto SQL FALLIDO:\n  {}", String.join("\n  ", failures));
+        return false;
+    }
+
+    /** Sentencias de la solicitud según X-Sql-Statements; -1 si no respondió 200 */
+    private long statements(LoadTestApi api, String path, List<String> failures) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = api.get(path);
+        if (response.statusCode() != 200) {
+            failures.add("GET " + path + " respondió " + response.statusCode());
+            return -1;
+        }
+        return response.headers().firstValueAsLong("X-Sql-Statements").orElseThrow(() ->
+                new IllegalStateException("Falta la cabecera X-Sql-Statements (sql.stats.headers=true)"));
+    }
+
+    private static void row(StringBuilder table, String path, long statements) {
+        table.append(String.format(Locale.ROOT, "%-34s %10d%n", path, statements));
+    }
+}
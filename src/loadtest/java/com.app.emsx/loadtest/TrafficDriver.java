@@ -0,0 +1,271 @@
+package com.app.emsx.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🚦 TrafficDriver
+ * -----------------------------------------------------
+ * ✅ Usuarios concurrentes en lazo cerrado: cada uno inicia sesión y luego elige operaciones
+ *   al azar según los pesos de loadtest.mix.* (préstamos, devoluciones, listados, búsquedas, dashboard)
+ * ✅ Las devoluciones usan préstamos ACTIVE (sembrados o creados durante la prueba)
+ * ✅ Latencia por operación en un histograma HDR (µs); 4xx cuentan como rechazos
+ *   (ej. 409 sin copias), 5xx/timeouts/errores de conexión como errores
+ * ✅ Solo se mide después del calentamiento
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class TrafficDriver {
+
+    /** Operación → endpoint que ejercita */
+    enum Operation {
+        LOGIN("login", "POST /api/auth/login"),
+        CHECKOUT("checkout", "POST /api/loans"),
+        RETURN("return", "POST /api/returns"),
+        LIST_BOOKS("list-books", "GET /api/books?size=20"),
+        LIST_STUDENTS("list-students", "GET /api/students?size=20"),
+        LIST_LOANS("list-loans", "GET /api/loans?size=20"),
+        SEARCH_BOOKS("search-books", "GET /api/books/search?q="),
+        BOOK_DETAIL("book-detail", "GET /api/books/{id}"),
+        DASHBOARD("dashboard", "GET /api/dashboard/stats");
+
+        final String key;
+        final String endpoint;
+
+        Operation(String key, String endpoint) {
+            this.key = key;
+            this.endpoint = endpoint;
+        }
+    }
+
+    /** Contadores y latencias de una operación */
+    static final class EndpointStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void record(long nanos, int status) {
+            latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latencyMicros.getHighestTrackableValue()));
+            if (status >= 200 && status < 300) ok.increment();
+            else if (status >= 400 && status < 500) rejected.increment();
+            else errors.increment();
+        }
+    }
+
+    /** Token del usuario virtual (se renueva con cada login) */
+    private static final class Session {
+        String token;
+    }
+
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.concurrency}")
+    private int concurrency;
+
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+
+    @Value("${loadtest.request-timeout-ms}")
+    private long requestTimeoutMs;
+
+    @Value("${loadtest.seed.books}")
+    private int books;
+
+    @Value("${loadtest.seed.students}")
+    private int students;
+
+    @Value("${loadtest.seed.user-email}")
+    private String userEmail;
+
+    @Value("${loadtest.seed.user-password}")
+    private String userPassword;
+
+    private final Queue<Long> activeLoans = new ConcurrentLinkedQueue<>();
+    private HttpClient client;
+    private String baseUrl;
+
+    /**
+     * ✅ Ejecuta calentamiento + medición contra la app en el puerto indicado
+     * y devuelve las estadísticas de la fase medida
+     */
+    public Map<Operation, EndpointStats> run(int port) throws InterruptedException {
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(requestTimeoutMs))
+                .build();
+        activeLoans.addAll(jdbcTemplate.queryForList("SELECT id FROM loans WHERE state = 'ACTIVE'", Long.class));
+
+        Operation[] operations = Operation.values();
+        int[] cumulative = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += environment.getProperty("loadtest.mix." + operations[i].key, Integer.class, 0);
+            cumulative[i] = totalWeight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalStateException("loadtest.mix.* no tiene ninguna operación con peso > 0");
+        }
+
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new EndpointStats());
+        }
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        log.info("Tráfico: {} usuarios, {} s de calentamiento + {} s de medición, {} préstamos activos iniciales",
+                concurrency, warmupSeconds, durationSeconds, activeLoans.size());
+
+        int weightSum = totalWeight;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Session session = new Session();
+                try {
+                    login(session);
+                } catch (IOException | InterruptedException e) {
+                    log.warn("Login inicial fallido: {}", e.getMessage());
+                }
+                while (System.nanoTime() < end) {
+                    int pick = random.nextInt(weightSum);
+                    Operation operation = operations[0];
+                    for (int i = 0; i < cumulative.length; i++) {
+                        if (pick < cumulative[i]) {
+                            operation = operations[i];
+                            break;
+                        }
+                    }
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = execute(operation, random, session);
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (start >= measureFrom) {
+                        stats.get(operation).record(System.nanoTime() - start, status);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return stats;
+    }
+
+    private int execute(Operation operation, ThreadLocalRandom random, Session session)
+            throws IOException, InterruptedException {
+        return switch (operation) {
+            case LOGIN -> login(session);
+            case CHECKOUT -> checkout(random, session);
+            case RETURN -> giveBack(random, session);
+            case LIST_BOOKS -> get("/api/books?size=20", session);
+            case LIST_STUDENTS -> get("/api/students?size=20", session);
+            case LIST_LOANS -> get("/api/loans?size=20", session);
+            case SEARCH_BOOKS -> get("/api/books/search?q=" + LoadTestSeeder.word(random.nextInt(1000)), session);
+            case BOOK_DETAIL -> get("/api/books/" + (1 + random.nextInt(books)), session);
+            case DASHBOARD -> get("/api/dashboard/stats", session);
+        };
+    }
+
+    private int login(Session session) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(post("/api/auth/login", session,
+                objectMapper.writeValueAsString(Map.of("email", userEmail, "password", userPassword))));
+        if (response.statusCode() == 200) {
+            session.token = data(response).path("token").asText(null);
+        }
+        return response.statusCode();
+    }
+
+    private int checkout(ThreadLocalRandom random, Session session) throws IOException, InterruptedException {
+        LocalDate today = LocalDate.now();
+        Map<String, Object> body = Map.of(
+                "studentId", 1 + random.nextInt(students),
+                "bookId", 1 + random.nextInt(books),
+                "dateLoan", today.toString(),
+                "dueDate", today.plusDays(7).toString(),
+                "amount", 0,
+                "state", "ACTIVE");
+        HttpResponse<byte[]> response = send(post("/api/loans", session, objectMapper.writeValueAsString(body)));
+        if (response.statusCode() == 200) {
+            activeLoans.add(data(response).path("id").asLong());
+        }
+        return response.statusCode();
+    }
+
+    /** Sin préstamos activos disponibles la devolución se convierte en un préstamo nuevo */
+    private int giveBack(ThreadLocalRandom random, Session session) throws IOException, InterruptedException {
+        Long loanId = activeLoans.poll();
+        if (loanId == null) {
+            return checkout(random, session);
+        }
+        Map<String, Object> body = Map.of(
+                "loanId", loanId,
+                "dateReturn", LocalDate.now().toString(),
+                "penalty", 0);
+        return send(post("/api/returns", session, objectMapper.writeValueAsString(body))).statusCode();
+    }
+
+    private int get(String path, Session session) throws IOException, InterruptedException {
+        return send(request(path, session).GET().build()).statusCode();
+    }
+
+    private HttpRequest post(String path, Session session, String json) {
+        return request(path, session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(requestTimeoutMs));
+        if (session.token != null) {
+            builder.header("Authorization", "Bearer " + session.token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private JsonNode data(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body()).path("data");
+    }
+}
@@ -1,5 +1,6 @@
 package com.app.emsx.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.time.LocalDateTime;
 
@@ -20,6 +21,9 @@ public class ApiResponse<T> {
     private T data;                 // objeto o lista de datos
     private LocalDateTime timestamp;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;      // cursor de la siguiente página (solo en listados paginados)
+
     public static <T> ApiResponse<T> ok(String message, T data) {
         return ApiResponse.<T>builder()
                 .success(true)
@@ -29,6 +33,16 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> ok(String message, T data, String nextCursor) {
+        return ApiResponse.<T>builder()
+                .success(true)
+                .message(message)
+                .data(data)
+                .timestamp(LocalDateTime.now())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     public static <T> ApiResponse<T> fail(String message) {
         return ApiResponse.<T>builder()
                 .success(false)
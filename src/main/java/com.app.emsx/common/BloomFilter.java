@@ -0,0 +1,87 @@
+package com.app.emsx.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter
+ * -----------------------------------------------------
+ * ✅ Conjunto probabilístico de textos: mightContain = false garantiza que el valor nunca se agregó;
+ *    true puede ser un falso positivo (con la tasa configurada mientras no se supere la capacidad)
+ * ✅ Seguro entre hilos sin locks (bits en AtomicLongArray); no admite eliminar valores
+ * ✅ k posiciones por doble hash (h1 + i·h2) de un hash de 64 bits sobre los caracteres
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+
+    public BloomFilter(long capacity, double falsePositiveRate) {
+        long expected = Math.max(1, capacity);
+        // m = -n·ln(p) / ln(2)², k = m/n · ln(2)
+        long m = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+        this.capacity = expected;
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Cantidad de valores para la que se dimensionó (por encima, la tasa de falsos positivos sube) */
+    public long capacity() {
+        return capacity;
+    }
+
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    private long index(int combined) {
+        // Sin signo: los bits altos del doble hash también cuentan
+        return (combined & 0xFFFFFFFFL) % bitCount;
+    }
+
+    /** FNV-1a de 64 bits sobre los char + mezcla final de MurmurHash3 (fmix64) */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.emsx.common;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * CursorPage<T>
+ * -----------------------------------------------------
+ * ✅ Página de resultados de una consulta keyset (por cursor)
+ * ✅ nextCursor es null cuando no hay más resultados
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
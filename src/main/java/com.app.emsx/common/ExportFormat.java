@@ -0,0 +1,42 @@
+package com.app.emsx.common;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+
+import java.util.Locale;
+
+/**
+ * ExportFormat
+ * -----------------------------------------------------
+ * ✅ Formatos de /api/exports e /api/imports: NDJSON (un objeto JSON por línea) o CSV con encabezado
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleException("Formato no soportado: '" + value + "' (use ndjson o csv)");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.app.emsx.common;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * KeysetCursors
+ * -----------------------------------------------------
+ * ✅ Utilidades para paginación keyset (por cursor) en los listados
+ * ✅ El cursor es opaco para el cliente: codifica en Base64 los valores de las claves de orden
+ *    del último elemento devuelto (incluido su tipo), así la siguiente página se obtiene con
+ *    "WHERE (clave, id) > (valor, ultimoId)" y su costo no depende de la profundidad.
+ * ✅ Siempre se añade "id" como desempate para que el orden sea total.
+ * ✅ Las claves permitidas deben ser columnas sin NULL: "clave > valor" nunca es verdadero para NULL
+ *    y esas filas desaparecerían del listado. Cada una tiene además un índice (clave, id) (V5).
+ * ✅ El cursor guarda también la dirección: solo sirve con la misma dirección con la que se generó.
+ */
+public final class KeysetCursors {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    /** Entrada del cursor con la dirección (no es una clave de orden) */
+    private static final String DIRECTION_KEY = "_dir";
+
+    private KeysetCursors() {
+    }
+
+    /**
+     * Construye el orden a partir de la clave y dirección pedidas por el cliente.
+     * Solo se permiten las claves indicadas por cada servicio (columnas indexables).
+     */
+    public static Sort sort(String sortKey, String direction, Set<String> allowedKeys) {
+        String key = sortKey == null || sortKey.isBlank() ? "id" : sortKey.trim();
+        if (!allowedKeys.contains(key)) {
+            throw new BusinessRuleException("No se puede ordenar por '" + key + "'. Valores permitidos: " + String.join(", ", new TreeSet<>(allowedKeys)));
+        }
+        Sort.Direction dir;
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            dir = Sort.Direction.ASC;
+        } else if (direction.equalsIgnoreCase("desc")) {
+            dir = Sort.Direction.DESC;
+        } else {
+            throw new BusinessRuleException("La dirección de orden solo puede ser 'asc' o 'desc'");
+        }
+        Sort sort = Sort.by(dir, key);
+        return key.equals("id") ? sort : sort.and(Sort.by(dir, "id"));
+    }
+
+    /**
+     * Tamaño de página: por defecto 50, entre 1 y 500.
+     */
+    public static Limit limit(Integer size) {
+        if (size == null) {
+            return Limit.of(DEFAULT_SIZE);
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BusinessRuleException("El tamaño de página debe estar entre 1 y " + MAX_SIZE);
+        }
+        return Limit.of(size);
+    }
+
+    /**
+     * Posición de inicio: sin cursor empieza desde el principio.
+     * El cursor debe corresponder al mismo orden con el que fue generado.
+     */
+    public static ScrollPosition position(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = decode(cursor);
+        Object cursorDirection = keys.remove(DIRECTION_KEY);
+        Set<String> expected = new HashSet<>();
+        sort.forEach(order -> expected.add(order.getProperty()));
+        if (!keys.keySet().equals(expected) || !direction(sort).name().equals(cursorDirection)) {
+            throw new BusinessRuleException("El cursor no corresponde al orden solicitado");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Convierte una ventana de entidades en una página de DTOs con el cursor siguiente.
+     */
+    public static <E, R> CursorPage<R> page(Window<E> window, Sort sort, Function<E, R> mapper) {
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            ScrollPosition last = window.positionAt(window.size() - 1);
+            if (last instanceof KeysetScrollPosition keyset) {
+                Map<String, Object> keys = new LinkedHashMap<>(keyset.getKeys());
+                keys.put(DIRECTION_KEY, direction(sort).name());
+                next = encode(keys);
+            }
+        }
+        return CursorPage.<R>builder()
+                .items(window.getContent().stream().map(mapper).toList())
+                .nextCursor(next)
+                .build();
+    }
+
+    /** Todas las claves de un orden construido con sort(...) comparten dirección */
+    private static Sort.Direction direction(Sort sort) {
+        return sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+    }
+
+    // ----------- Codificación del cursor -----------
+    // Formato (antes de Base64): clave=TIPO:valor&clave=TIPO:valor&_dir=S:ASC|DESC
+
+    static String encode(Map<String, ?> keys) {
+        StringJoiner joiner = new StringJoiner("&");
+        keys.forEach((name, value) -> joiner.add(name + "=" + tag(value) + ":" + url(value == null ? "" : value.toString())));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Map<String, Object> decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                int colon = pair.indexOf(':', eq);
+                String name = pair.substring(0, eq);
+                String type = pair.substring(eq + 1, colon);
+                String value = URLDecoder.decode(pair.substring(colon + 1), StandardCharsets.UTF_8);
+                keys.put(name, parse(type, value));
+            }
+            return keys;
+        } catch (RuntimeException e) {
+            throw new BusinessRuleException("El cursor de paginación no es válido");
+        }
+    }
+
+    private static String tag(Object value) {
+        if (value == null) return "N";
+        if (value instanceof Long) return "L";
+        if (value instanceof Integer) return "I";
+        if (value instanceof Double) return "F";
+        if (value instanceof LocalDate) return "LD";
+        if (value instanceof LocalDateTime) return "LT";
+        if (value instanceof Boolean) return "B";
+        return "S";
+    }
+
+    private static Object parse(String type, String value) {
+        return switch (type) {
+            case "N" -> null;
+            case "L" -> Long.valueOf(value);
+            case "I" -> Integer.valueOf(value);
+            case "F" -> Double.valueOf(value);
+            case "LD" -> LocalDate.parse(value);
+            case "LT" -> LocalDateTime.parse(value);
+            case "B" -> Boolean.valueOf(value);
+            case "S" -> value;
+            default -> throw new IllegalArgumentException("Tipo de cursor desconocido: " + type);
+        };
+    }
+
+    private static String url(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
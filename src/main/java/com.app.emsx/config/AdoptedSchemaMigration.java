@@ -0,0 +1,76 @@
+package com.app.emsx.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * AdoptedSchemaMigration (V4)
+ * -----------------------------------------------------
+ * ✔ Las bases creadas antes con ddl-auto=update se toman como V1 (baseline-on-migrate) sin ejecutar
+ *   V1__baseline_schema.sql, pero el código de entonces usaba IDENTITY y no tenía multa provisional:
+ *   les faltan la tabla id_sequences y la columna loans.provisional_penalty
+ * ✔ Crea solo lo que falta (consulta los metadatos JDBC), así en una base creada desde V1 no hace nada
+ * ✔ Va después de V3 y no como V1.1: las bases adoptadas que ya llegaron a V3 también la reciben
+ * ✔ Las filas de id_sequences las inserta IdSequenceInitializer al iniciar, por encima del MAX(id) de cada tabla
+ * ✔ Java y no SQL: MySQL no tiene ADD COLUMN IF NOT EXISTS (Spring Boot registra el bean en Flyway)
+ */
+@Slf4j
+@Component
+public class AdoptedSchemaMigration implements JavaMigration {
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("4");
+    }
+
+    @Override
+    public String getDescription() {
+        return "adopted schema gaps";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        try (Statement statement = connection.createStatement()) {
+            if (!exists(metaData.getTables(catalog, null, "id_sequences", null))) {
+                statement.execute("CREATE TABLE id_sequences ("
+                        + "seq_name VARCHAR(255) NOT NULL, "
+                        + "next_val BIGINT, "
+                        + "PRIMARY KEY (seq_name)"
+                        + ") ENGINE=InnoDB");
+                log.info("Tabla id_sequences creada (base adoptada)");
+            }
+            if (!exists(metaData.getColumns(catalog, null, "loans", "provisional_penalty"))) {
+                statement.execute("ALTER TABLE loans ADD COLUMN provisional_penalty FLOAT(53)");
+                log.info("Columna loans.provisional_penalty agregada (base adoptada)");
+            }
+        }
+    }
+
+    private static boolean exists(ResultSet rs) throws SQLException {
+        try (rs) {
+            return rs.next();
+        }
+    }
+}
@@ -30,7 +30,10 @@ public class CorsConfig {
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 
         // ✅ Headers permitidos
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "Idempotency-Key"));
+
+        // ✅ Headers visibles para el frontend (respuesta repetida por Idempotency-Key)
+        config.setExposedHeaders(List.of("Idempotent-Replayed"));
 
         // ✅ Permitir credenciales (si usás cookies o headers con token)
         config.setAllowCredentials(true);
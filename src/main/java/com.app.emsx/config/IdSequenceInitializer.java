@@ -0,0 +1,69 @@
+package com.app.emsx.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * IdSequenceInitializer
+ * -----------------------------------------------------
+ * ✔ Las entidades generan sus IDs con un generador de tabla (id_sequences) con
+ *   asignación por bloques (allocationSize = 50), lo que permite que Hibernate agrupe
+ *   los INSERT en lotes JDBC (con IDENTITY el batching queda deshabilitado).
+ * ✔ Al iniciar, asegura que cada secuencia arranque por encima del MAX(id) actual
+ *   de su tabla, para bases de datos creadas antes con AUTO_INCREMENT.
+ * ✔ El ajuste es un UPDATE ... GREATEST(...): nunca baja next_val por debajo de un bloque
+ *   que otro nodo ya haya entregado.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    /** Debe coincidir con el allocationSize de los @TableGenerator de las entidades */
+    static final int ALLOCATION_SIZE = 50;
+
+    /** seq_name (pkColumnValue) → tabla de la entidad */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "authors", "authors",
+            "books", "books",
+            "inventory", "inventory",
+            "loans", "loans",
+            "returns", "returns",
+            "students", "students",
+            "users", "users"
+    );
+
+    /** MySQL cuenta las filas encontradas (no solo las modificadas): 0 = la secuencia no existe */
+    private static final String RAISE_TO_FLOOR =
+            "UPDATE id_sequences SET next_val = GREATEST(COALESCE(next_val, 0), ?) WHERE seq_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long floor = (maxId != null ? maxId : 0L) + ALLOCATION_SIZE + 1;
+
+            // Solo sube next_val, en una sola sentencia: otro nodo puede estar reservando bloques al mismo tiempo
+            int updated = jdbcTemplate.update(RAISE_TO_FLOOR, floor, sequence);
+            if (updated == 0) {
+                try {
+                    jdbcTemplate.update("INSERT INTO id_sequences (seq_name, next_val) VALUES (?, ?)", sequence, floor);
+                    log.info("Secuencia '{}' inicializada en {}", sequence, floor);
+                } catch (DuplicateKeyException e) {
+                    // Otro nodo la creó entre el UPDATE y el INSERT
+                    jdbcTemplate.update(RAISE_TO_FLOOR, floor, sequence);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.app.emsx.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🛟 ReserveConnectionDataSource
+ * -----------------------------------------------------
+ * ✅ Un hilo que ya tiene una conexión abierta y pide otra (ej. el @TableGenerator de id_sequences
+ *   reserva un bloque de IDs en una transacción aparte) la recibe de un pool de reserva pequeño
+ * ✅ Sin la reserva, si todas las conexiones del pool principal las tienen transacciones que esperan
+ *   el siguiente bloque de IDs, quien lo pide no consigue conexión y todas terminan en timeout
+ * ✅ La primera conexión de cada hilo sigue saliendo del pool principal
+ */
+@Slf4j
+public class ReserveConnectionDataSource extends DelegatingDataSource {
+
+    /** Conexiones abiertas por el hilo actual (a través de este DataSource) */
+    private static final ThreadLocal<int[]> OPEN = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final HikariDataSource reserve;
+
+    public ReserveConnectionDataSource(DataSource target, HikariDataSource reserve) {
+        super(target);
+        this.reserve = reserve;
+    }
+
+    /**
+     * ✅ Envuelve el DataSource del contexto con un pool de reserva de db.reserve-pool.size conexiones
+     * (0 = sin reserva); se aplica antes que SqlStatsDataSource
+     */
+    @Component
+    static class Wrapper implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final int size;
+        private final List<HikariDataSource> reserves = new ArrayList<>();
+
+        Wrapper(@Value("${db.reserve-pool.size:4}") int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (size <= 0 || !(bean instanceof HikariDataSource main)) {
+                return bean;
+            }
+            HikariConfig config = new HikariConfig();
+            main.copyStateTo(config);
+            config.setPoolName((main.getPoolName() != null ? main.getPoolName() : beanName) + "-reserve");
+            config.setMaximumPoolSize(size);
+            config.setMinimumIdle(0);
+            HikariDataSource reserve = new HikariDataSource(config);
+            reserves.add(reserve);
+            return new ReserveConnectionDataSource(main, reserve);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void destroy() {
+            reserves.forEach(HikariDataSource::close);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int[] open = OPEN.get();
+        Connection connection = open[0] > 0 ? reserve.getConnection() : super.getConnection();
+        open[0]++;
+        return track(connection, open);
+    }
+
+    /** close() descuenta la conexión del hilo una sola vez */
+    private static Connection track(Connection connection, int[] open) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(ReserveConnectionDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        open[0]--;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
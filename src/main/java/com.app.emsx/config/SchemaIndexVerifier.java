@@ -0,0 +1,116 @@
+package com.app.emsx.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * SchemaIndexVerifier
+ * -----------------------------------------------------
+ * ✔ Al iniciar compara los índices de la BD con los que necesitan las consultas
+ *   de los repositorios y el orden de los listados (los crean las migraciones V1/V2/V5 de Flyway)
+ * ✔ Compara por columnas, no por nombre: un índice más ancho con el mismo prefijo también sirve
+ * ✔ Las columnas únicas (email, código, teléfono) deben tener además su índice UNIQUE (V1/V3)
+ * ✔ Si falta alguno lo informa (o impide el arranque con schema.index-check.fail-on-missing=true)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaIndexVerifier {
+
+    /** tabla → columnas (en orden) que deben ser prefijo de algún índice */
+    private static final Map<String, List<List<String>>> EXPECTED = Map.of(
+            "loans", List.of(
+                    List.of("student_id", "book_id", "state"),
+                    List.of("book_id", "state"),
+                    List.of("state", "due_date"),
+                    List.of("date_loan")),
+            "returns", List.of(List.of("loan_id"), List.of("date_return")),
+            "books", List.of(List.of("title", "author_id"), List.of("title", "id"), List.of("author_id")),
+            "students", List.of(List.of("codigo"), List.of("email"), List.of("phone"), List.of("last_name")),
+            "authors", List.of(List.of("email"), List.of("last_name")),
+            "inventory", List.of(List.of("book_id")),
+            "users", List.of(List.of("email"))
+    );
+
+    /** tabla → columnas que deben tener un índice UNIQUE exacto (UniquenessGuard confía en ellos, V1/V3) */
+    private static final Map<String, List<List<String>>> EXPECTED_UNIQUE = Map.of(
+            "students", List.of(List.of("codigo"), List.of("email"), List.of("phone")),
+            "authors", List.of(List.of("email")),
+            "users", List.of(List.of("email"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${schema.index-check.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        List<String> missing = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String catalog = connection.getCatalog();
+            List<String> result = new ArrayList<>();
+            EXPECTED_UNIQUE.forEach((table, expectedIndexes) -> {
+                Collection<List<String>> actual = readIndexes(metaData, catalog, table, true);
+                for (List<String> columns : expectedIndexes) {
+                    if (!actual.contains(columns)) {
+                        result.add(table + columns + " UNIQUE");
+                    }
+                }
+            });
+            EXPECTED.forEach((table, expectedIndexes) -> {
+                Collection<List<String>> actual = readIndexes(metaData, catalog, table, false);
+                for (List<String> columns : expectedIndexes) {
+                    boolean covered = actual.stream().anyMatch(index ->
+                            index.size() >= columns.size() && index.subList(0, columns.size()).equals(columns));
+                    if (!covered) {
+                        result.add(table + columns);
+                    }
+                }
+            });
+            return result;
+        });
+
+        if (missing == null || missing.isEmpty()) {
+            log.info("Índices del esquema verificados: {} tablas OK", EXPECTED.size());
+            return;
+        }
+        String message = "Faltan índices en la BD: " + String.join(", ", missing)
+                + " (¿migraciones de Flyway sin aplicar?)";
+        if (failOnMissing) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * ✅ Índices de una tabla (todos o solo los UNIQUE) como listas de columnas ordenadas (en minúsculas)
+     */
+    private static Collection<List<String>> readIndexes(DatabaseMetaData metaData, String catalog, String table,
+                                                       boolean uniqueOnly) {
+        Map<String, SortedMap<Short, String>> indexes = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(catalog, null, table, uniqueOnly, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) continue;
+                indexes.computeIfAbsent(indexName, k -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        } catch (SQLException e) {
+            log.warn("No se pudieron leer los índices de '{}': {}", table, e.getMessage());
+        }
+        return indexes.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.emsx.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * ThreadingModeReporter
+ * -----------------------------------------------------
+ * ✔ Informa al iniciar si las solicitudes corren en hilos virtuales o de plataforma
+ * ✔ Advierte si se pidió VIRTUAL_THREADS=true pero la JVM es anterior a Java 21
+ *   (Spring Boot ignora la propiedad y sigue con el pool de Tomcat)
+ * ✔ Nuestro código no entra a la BD ni a otra E/S dentro de un bloque synchronized
+ *   (LibraryGauges consulta desde una tarea @Scheduled, el import usa colecciones concurrentes),
+ *   así que no fija (pin) hilos virtuales a su carrier mientras espera; para auditar
+ *   dependencias ejecutar con -Djdk.tracePinnedThreads=short
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThreadingModeReporter {
+
+    private final Environment environment;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualRequested;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int dbPoolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Hilos virtuales activos: la concurrencia hacia la BD la limita Hikari ({} conexiones)", dbPoolSize);
+        } else if (virtualRequested) {
+            log.warn("spring.threads.virtual.enabled=true requiere Java 21+ (JVM actual: {}); se usan hilos de plataforma",
+                    Runtime.version().feature());
+        } else {
+            log.info("Hilos de plataforma (pool de Tomcat); VIRTUAL_THREADS=true para activar hilos virtuales en Java 21+");
+        }
+    }
+}
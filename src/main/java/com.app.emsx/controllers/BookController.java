@@ -2,7 +2,10 @@ package com.app.emsx.controllers;
 
 import com.app.emsx.dtos.book.BookRequest;
 import com.app.emsx.dtos.book.BookResponse;
+import com.app.emsx.dtos.book.BookSearchResponse;
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.services.BookSearchService;
 import com.app.emsx.services.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +25,7 @@ import java.util.List;
 public class BookController {
 
     private final BookService service;
+    private final BookSearchService searchService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<BookResponse>> create(@Valid @RequestBody BookRequest request) {
@@ -36,9 +40,32 @@ public class BookController {
         return ResponseEntity.ok(ApiResponse.ok("Libro actualizado correctamente", updated));
     }
 
+    /**
+     * Sin parámetros devuelve la lista completa (compatibilidad con el frontend).
+     * Con cursor/size/sort/direction pagina por keyset: la respuesta incluye nextCursor para pedir la siguiente página.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<BookResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de libros", service.findAll()));
+    public ResponseEntity<ApiResponse<List<BookResponse>>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        if (cursor == null && size == null && sort == null && direction == null) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de libros", service.findAll()));
+        }
+        CursorPage<BookResponse> page = service.findPage(cursor, size, sort, direction);
+        return ResponseEntity.ok(ApiResponse.ok("Lista de libros", page.getItems(), page.getNextCursor()));
+    }
+
+    /**
+     * Búsqueda por título, género, editorial o autor (sin acentos, por prefijo y tolerante a errores de tipeo),
+     * ordenada por relevancia. Ej: /api/books/search?q=cortazar rayuela&limit=10
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<BookSearchResponse>>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(ApiResponse.ok("Resultados de búsqueda", searchService.search(q, limit)));
     }
 
     @GetMapping("/{id}")
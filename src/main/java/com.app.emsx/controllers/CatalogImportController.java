@@ -0,0 +1,42 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.catalog.CatalogImportJobResponse;
+import com.app.emsx.services.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 📥 CatalogImportController
+ * -----------------------------------------------------
+ * Importación masiva del catálogo (libros, autores e inventarios) en segundo plano.
+ * POST devuelve 202 con el id del trabajo; GET /{id} informa progreso y errores por fila.
+ */
+@RestController
+@RequestMapping("/api/imports/catalog")
+@RequiredArgsConstructor
+public class CatalogImportController {
+
+    private final CatalogImportService service;
+
+    /**
+     * multipart/form-data con "file" (.csv o .ndjson); "format" (csv | ndjson) si la extensión no lo indica
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<CatalogImportJobResponse>> submit(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(required = false) String format) {
+        CatalogImportJobResponse job = service.submit(file, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.ok("Importación en cola", job));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CatalogImportJobResponse>> findJob(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.ok("Estado de la importación", service.findJob(id)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ExportFormat;
+import com.app.emsx.services.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * 📤 ExportController
+ * -----------------------------------------------------
+ * Exportaciones para reportes, escritas fila a fila (no usan ApiResponse).
+ * Ej: /api/exports/loans?format=csv&from=2025-01-01&to=2025-06-30&gzip=true
+ */
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService service;
+
+    @GetMapping("/loans")
+    public ResponseEntity<StreamingResponseBody> exportLoans(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return file("loans", exportFormat, gzip, service.exportLoans(exportFormat, from, to, gzip));
+    }
+
+    @GetMapping("/returns")
+    public ResponseEntity<StreamingResponseBody> exportReturns(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return file("returns", exportFormat, gzip, service.exportReturns(exportFormat, from, to, gzip));
+    }
+
+    @GetMapping("/inventory")
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return file("inventory", exportFormat, gzip, service.exportInventory(exportFormat, gzip));
+    }
+
+    /**
+     * Descarga como archivo; con gzip=true el cuerpo va comprimido (Content-Encoding: gzip)
+     */
+    private static ResponseEntity<StreamingResponseBody> file(
+            String name, ExportFormat format, boolean gzip, StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -3,6 +3,7 @@ package com.app.emsx.controllers;
 import com.app.emsx.dtos.inventory.InventoryRequest;
 import com.app.emsx.dtos.inventory.InventoryResponse;
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.services.InventoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,9 +37,21 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.ok("Inventario actualizado correctamente", updated));
     }
 
+    /**
+     * Sin parámetros devuelve la lista completa (compatibilidad con el frontend).
+     * Con cursor/size/sort/direction pagina por keyset: la respuesta incluye nextCursor para pedir la siguiente página.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<InventoryResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de inventarios", service.findAll()));
+    public ResponseEntity<ApiResponse<List<InventoryResponse>>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        if (cursor == null && size == null && sort == null && direction == null) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de inventarios", service.findAll()));
+        }
+        CursorPage<InventoryResponse> page = service.findPage(cursor, size, sort, direction);
+        return ResponseEntity.ok(ApiResponse.ok("Lista de inventarios", page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/{id}")
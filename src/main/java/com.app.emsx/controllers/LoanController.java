@@ -1,8 +1,12 @@
 package com.app.emsx.controllers;
 
+import com.app.emsx.dtos.loan.LoanBatchRequest;
+import com.app.emsx.dtos.loan.LoanBatchResponse;
 import com.app.emsx.dtos.loan.LoanRequest;
 import com.app.emsx.dtos.loan.LoanResponse;
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.services.IdempotencyService;
 import com.app.emsx.services.LoanService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,11 +26,31 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService service;
+    private final IdempotencyService idempotencyService;
 
+    /**
+     * Con Idempotency-Key los reintentos del cliente reciben la respuesta original sin volver a crear nada
+     * (cabecera Idempotent-Replayed: true en la respuesta repetida).
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<LoanResponse>> create(@Valid @RequestBody LoanRequest request) {
-        LoanResponse created = service.create(request);
-        return ResponseEntity.ok(ApiResponse.ok("Préstamo creado correctamente", created));
+    public ResponseEntity<ApiResponse<LoanResponse>> create(
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody LoanRequest request) {
+        IdempotencyService.Result<LoanResponse> result = idempotencyService.execute(
+                "loans", idempotencyKey, request, LoanResponse.class, () -> service.create(request));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(ApiResponse.ok("Préstamo creado correctamente", result.value()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<LoanBatchResponse>> createBatch(@Valid @RequestBody LoanBatchRequest request) {
+        LoanBatchResponse result = service.createBatch(request.getLoans());
+        return ResponseEntity.ok(ApiResponse.ok(
+                "Lote procesado: " + result.getCreated() + " préstamo(s) creado(s), " + result.getFailed() + " con error",
+                result));
     }
 
     @PutMapping("/{id}")
@@ -36,9 +60,21 @@ public class LoanController {
         return ResponseEntity.ok(ApiResponse.ok("Préstamo actualizado correctamente", updated));
     }
 
+    /**
+     * Sin parámetros devuelve la lista completa (compatibilidad con el frontend).
+     * Con cursor/size/sort/direction pagina por keyset: la respuesta incluye nextCursor para pedir la siguiente página.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<LoanResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de préstamos", service.findAll()));
+    public ResponseEntity<ApiResponse<List<LoanResponse>>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        if (cursor == null && size == null && sort == null && direction == null) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de préstamos", service.findAll()));
+        }
+        CursorPage<LoanResponse> page = service.findPage(cursor, size, sort, direction);
+        return ResponseEntity.ok(ApiResponse.ok("Lista de préstamos", page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/{id}")
@@ -3,6 +3,8 @@ package com.app.emsx.controllers;
 import com.app.emsx.dtos.return_.ReturnRequest;
 import com.app.emsx.dtos.return_.ReturnResponse;
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.services.IdempotencyService;
 import com.app.emsx.services.ReturnService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,11 +24,23 @@ import java.util.List;
 public class ReturnController {
 
     private final ReturnService service;
+    private final IdempotencyService idempotencyService;
 
+    /**
+     * Con Idempotency-Key los reintentos del cliente reciben la respuesta original sin volver a crear nada
+     * (cabecera Idempotent-Replayed: true en la respuesta repetida).
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<ReturnResponse>> create(@Valid @RequestBody ReturnRequest request) {
-        ReturnResponse created = service.create(request);
-        return ResponseEntity.ok(ApiResponse.ok("Devolución creada correctamente", created));
+    public ResponseEntity<ApiResponse<ReturnResponse>> create(
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ReturnRequest request) {
+        IdempotencyService.Result<ReturnResponse> result = idempotencyService.execute(
+                "returns", idempotencyKey, request, ReturnResponse.class, () -> service.create(request));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(ApiResponse.ok("Devolución creada correctamente", result.value()));
     }
 
     @PutMapping("/{id}")
@@ -38,9 +52,21 @@ public class ReturnController {
         );
     }
 
+    /**
+     * Sin parámetros devuelve la lista completa (compatibilidad con el frontend).
+     * Con cursor/size/sort/direction pagina por keyset: la respuesta incluye nextCursor para pedir la siguiente página.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ReturnResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de devoluciones", service.findAll()));
+    public ResponseEntity<ApiResponse<List<ReturnResponse>>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        if (cursor == null && size == null && sort == null && direction == null) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de devoluciones", service.findAll()));
+        }
+        CursorPage<ReturnResponse> page = service.findPage(cursor, size, sort, direction);
+        return ResponseEntity.ok(ApiResponse.ok("Lista de devoluciones", page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/{id}")
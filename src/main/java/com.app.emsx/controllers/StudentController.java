@@ -3,6 +3,7 @@ package com.app.emsx.controllers;
 import com.app.emsx.dtos.student.StudentRequest;
 import com.app.emsx.dtos.student.StudentResponse;
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.services.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,9 +37,21 @@ public class StudentController {
         return ResponseEntity.ok(ApiResponse.ok("Estudiante actualizado correctamente", updated));
     }
 
+    /**
+     * Sin parámetros devuelve la lista completa (compatibilidad con el frontend).
+     * Con cursor/size/sort/direction pagina por keyset: la respuesta incluye nextCursor para pedir la siguiente página.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<StudentResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de estudiantes", service.findAll()));
+    public ResponseEntity<ApiResponse<List<StudentResponse>>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        if (cursor == null && size == null && sort == null && direction == null) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de estudiantes", service.findAll()));
+        }
+        CursorPage<StudentResponse> page = service.findPage(cursor, size, sort, direction);
+        return ResponseEntity.ok(ApiResponse.ok("Lista de estudiantes", page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/{id}")
@@ -5,6 +5,7 @@ import com.app.emsx.dtos.auth.AuthenticationResponse;
 import com.app.emsx.dtos.auth.RegisterRequest;
 import com.app.emsx.entities.User;
 import com.app.emsx.repositories.UserRepository;
+import com.app.emsx.security.AuthWorkerPool;
 import com.app.emsx.serviceimpls.AuthServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,12 +14,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * AuthController
  * -----------------------------------------------------
  * ✔ /register → registra un nuevo usuario
  * ✔ /login → devuelve token y datos del usuario
  * ✔ /me → devuelve el usuario autenticado (JWT requerido)
+ * ✔ /register y /login corren en AuthWorkerPool (BCrypt fuera de los hilos de Tomcat, 503 si está lleno)
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -28,6 +32,7 @@ public class AuthController {
 
     private final AuthServiceImpl authService;
     private final UserRepository userRepository;
+    private final AuthWorkerPool authWorkerPool;
 
     /**
      * ✅ Registro de nuevo usuario
@@ -35,12 +40,14 @@ public class AuthController {
      * Retorna solo un mensaje de éxito, sin token (el usuario debe hacer login después)
      */
     @PostMapping("/register")
-    public ResponseEntity<com.app.emsx.common.ApiResponse<String>> register(@Valid @RequestBody RegisterRequest request) {
-        authService.register(request);
-        return ResponseEntity.ok(com.app.emsx.common.ApiResponse.ok(
-            "Usuario registrado correctamente. Por favor inicia sesión para continuar.", 
-            null
-        ));
+    public CompletableFuture<ResponseEntity<com.app.emsx.common.ApiResponse<String>>> register(@Valid @RequestBody RegisterRequest request) {
+        return authWorkerPool.submit("register", () -> {
+            authService.register(request);
+            return ResponseEntity.ok(com.app.emsx.common.ApiResponse.<String>ok(
+                "Usuario registrado correctamente. Por favor inicia sesión para continuar.", 
+                null
+            ));
+        });
     }
 
     /**
@@ -48,8 +55,8 @@ public class AuthController {
      * Endpoint: POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request) {
-        return ResponseEntity.ok(authService.authenticate(request));
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> authenticate(@Valid @RequestBody AuthenticationRequest request) {
+        return authWorkerPool.submit("login", () -> ResponseEntity.ok(authService.authenticate(request)));
     }
 
     /**
@@ -0,0 +1,21 @@
+package com.app.emsx.dtos.book;
+
+import lombok.*;
+
+/**
+ * 🔎 Resultado de GET /api/books/search (se arma desde el índice en memoria, sin consultar la BD)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookSearchResponse {
+    private Long id;
+    private String title;
+    private String genre;
+    private String editorial;
+    private Long authorId;
+    private String authorName;
+    /** Relevancia: mayor es mejor */
+    private double score;
+}
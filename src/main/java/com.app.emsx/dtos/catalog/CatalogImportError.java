@@ -0,0 +1,12 @@
+package com.app.emsx.dtos.catalog;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportError {
+    private long row;       // número de fila de datos en el archivo (1 = primera fila después del encabezado)
+    private String message;
+}
@@ -0,0 +1,34 @@
+package com.app.emsx.dtos.catalog;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 📥 Estado de una importación masiva (GET /api/imports/catalog/{id})
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportJobResponse {
+    private String id;
+    private String fileName;
+    private String format;
+    private String state;           // QUEUED, RUNNING, COMPLETED o FAILED
+    private String message;         // causa si state = FAILED
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    private long rowsRead;
+    private long rowsFailed;
+    private long booksCreated;
+    private long authorsCreated;
+    private long inventoriesCreated;
+
+    /** Primeros errores por fila (hasta catalog-import.max-errors); errorsTruncated indica que hubo más */
+    private List<CatalogImportError> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,27 @@
+package com.app.emsx.dtos.catalog;
+
+import lombok.*;
+
+/**
+ * 📥 Fila de la importación masiva: un libro, su autor (por email) y opcionalmente su inventario.
+ * En CSV las columnas del encabezado llevan estos mismos nombres; en NDJSON, un objeto por línea.
+ * Si el email no corresponde a un autor existente, se crea con authorFirstName, authorLastName y authorBirthDate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportRow {
+    private String title;
+    private String genre;
+    private String editorial;
+    private String publicationDate;
+
+    private String authorEmail;
+    private String authorFirstName;
+    private String authorLastName;
+    private String authorBirthDate;
+
+    /** Copias del inventario inicial (todas disponibles); vacío = el libro se crea sin inventario */
+    private Integer totalCopies;
+}
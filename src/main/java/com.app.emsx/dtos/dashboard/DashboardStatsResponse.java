@@ -0,0 +1,36 @@
+package com.app.emsx.dtos.dashboard;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardStatsResponse {
+    private long students;
+    private long authors;
+    private long books;
+    private long loans;
+    private long inventories;
+    private List<NameValue> employeesPerDept; // Libros por autor (nombre mantenido por compatibilidad con el frontend)
+    private List<TrendPoint> trendData;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NameValue {
+        private String name;
+        private long value;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendPoint {
+        private String month;
+        private long newLoans;
+        private long returns;
+    }
+}
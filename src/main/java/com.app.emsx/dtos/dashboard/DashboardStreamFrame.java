@@ -0,0 +1,16 @@
+package com.app.emsx.dtos.dashboard;
+
+import com.app.emsx.dtos.inventory.InventoryResponse;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardStreamFrame {
+    private DashboardStatsResponse stats;               // null si no cambiaron desde el frame anterior
+    private List<InventoryResponse> inventories;        // inventarios modificados en el intervalo
+    private List<Long> deletedInventoryIds;
+}
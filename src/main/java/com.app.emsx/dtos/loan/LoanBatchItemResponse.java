@@ -0,0 +1,14 @@
+package com.app.emsx.dtos.loan;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanBatchItemResponse {
+    private int index;          // posición del préstamo dentro del lote
+    private boolean success;
+    private String message;
+    private LoanResponse loan;  // null si el ítem falló
+}
@@ -0,0 +1,18 @@
+package com.app.emsx.dtos.loan;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanBatchRequest {
+    // Cada préstamo se valida individualmente en el servicio para reportar errores por ítem
+    @NotEmpty(message = "El lote debe contener al menos un préstamo")
+    @Size(max = 500, message = "El lote no puede tener más de 500 préstamos")
+    private List<LoanRequest> loans;
+}
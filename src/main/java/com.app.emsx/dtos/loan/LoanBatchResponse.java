@@ -0,0 +1,16 @@
+package com.app.emsx.dtos.loan;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanBatchResponse {
+    private int total;
+    private int created;
+    private int failed;
+    private List<LoanBatchItemResponse> results;
+}
@@ -21,6 +21,7 @@ public class LoanResponse {
     private LocalDate dueDate;
 
     private double amount;
+    private Double provisionalPenalty;
     private Long studentId;
     private String studentName;
     private Long bookId;
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 public class ReturnRequest {
+    @NotNull(message = "La fecha de devolución es obligatoria")
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate dateReturn;
 
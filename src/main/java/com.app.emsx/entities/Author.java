@@ -1,6 +1,8 @@
 package com.app.emsx.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,16 +13,22 @@ import java.util.List;
 
 @Entity
 @Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "authors_id")
+    @TableGenerator(name = "authors_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "authors", allocationSize = 50)
     private Long id;
 
     private String firstName;
+    @Column(nullable = false)
     private String lastName;
+    @Column(unique = true)
     private String email;
     
     @Column(name = "birth_date", columnDefinition = "DATE")
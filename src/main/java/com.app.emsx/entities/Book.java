@@ -16,9 +16,12 @@ import java.util.List;
 @NoArgsConstructor
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "books_id")
+    @TableGenerator(name = "books_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "books", allocationSize = 50)
     private Long id;
 
+    @Column(nullable = false)
     private String title;
     private String genre;
     
@@ -14,15 +14,22 @@ import java.time.LocalDate;
 @NoArgsConstructor
 public class Loan {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "loans_id")
+    @TableGenerator(name = "loans_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "loans", allocationSize = 50)
     private Long id;
 
     private String state;
     private String observations;
+    @Column(nullable = false)
     private LocalDate dateLoan;
     private double amount;
     private LocalDate dueDate;
 
+    /** Multa provisional acumulada mientras el préstamo está vencido (la calcula OverdueLoanSweeper) */
+    @Column(name = "provisional_penalty")
+    private Double provisionalPenalty;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", referencedColumnName = "id")
     private Student student;
@@ -14,9 +14,12 @@ import java.time.LocalDate;
 @NoArgsConstructor
 public class Return {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "returns_id")
+    @TableGenerator(name = "returns_id", table = "id_sequences", pkColumnName = "seq_name",
+            valueColumnName = "next_val", pkColumnValue = "returns", allocationSize = 50)
     private Long id;
 
+    @Column(nullable = false)
     private LocalDate dateReturn;
     private String observations;
     private double penalty;
@@ -0,0 +1,61 @@
+package com.app.emsx.events;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * 📣 LibraryEvent
+ * -----------------------------------------------------
+ * ✅ Evento de dominio que publican los servicios al crear, actualizar o eliminar
+ * ✅ Lo consumen los módulos de lectura (dashboard) después del commit
+ * ✅ Lleva solo los datos necesarios para aplicar el cambio sin volver a consultar la BD
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LibraryEvent {
+
+    public enum Entity { STUDENT, AUTHOR, BOOK, INVENTORY, LOAN, RETURN }
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    private final Entity entity;
+    private final Action action;
+    private final Long id;
+    /** Autor del libro (solo BOOK) */
+    private final Long authorId;
+    /** Libro afectado (LOAN / RETURN / INVENTORY), identifica el inventario que cambió */
+    private final Long bookId;
+    /** Nombre visible (solo AUTHOR) */
+    private final String label;
+    /** Fecha del préstamo o devolución (solo LOAN / RETURN), define el mes de la tendencia */
+    private final LocalDate date;
+
+    public static LibraryEvent of(Entity entity, Action action, Long id) {
+        return new LibraryEvent(entity, action, id, null, null, null, null);
+    }
+
+    public static LibraryEvent inventory(Action action, Long id, Long bookId) {
+        return new LibraryEvent(Entity.INVENTORY, action, id, null, bookId, null, null);
+    }
+
+    public static LibraryEvent author(Action action, Long id, String fullName) {
+        return new LibraryEvent(Entity.AUTHOR, action, id, null, null, fullName, null);
+    }
+
+    public static LibraryEvent book(Action action, Long id, Long authorId) {
+        return new LibraryEvent(Entity.BOOK, action, id, authorId, null, null, null);
+    }
+
+    public static LibraryEvent loan(Action action, Long id, Long bookId, LocalDate dateLoan) {
+        return new LibraryEvent(Entity.LOAN, action, id, null, bookId, null, dateLoan);
+    }
+
+    public static LibraryEvent returned(Action action, Long id, Long bookId, LocalDate dateReturn) {
+        return new LibraryEvent(Entity.RETURN, action, id, null, bookId, null, dateReturn);
+    }
+}
@@ -1,8 +1,11 @@
 package com.app.emsx.exceptions;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.metrics.BusinessRuleMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -15,6 +18,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -30,8 +34,11 @@ import java.util.Map;
  * ✅ Evita duplicación de código en controladores.
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final BusinessRuleMetrics businessRuleMetrics;
+
     /**
      * ⚠️ Validaciones con @Valid (campos requeridos, formatos, etc.)
      * Retorna: HTTP 400 (Bad Request)
@@ -159,6 +166,20 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.fail(message));
     }
 
+    /**
+     * 🔢 Parámetros de URL con tipo incorrecto (400)
+     * Ejemplo: ?from=15-01-2025 en lugar de ?from=2025-01-15
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        String expected = ex.getRequiredType() != null && ex.getRequiredType().equals(java.time.LocalDate.class)
+                ? " (formato esperado: yyyy-MM-dd)"
+                : "";
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.fail("El parámetro '" + ex.getName() + "' tiene un valor inválido" + expected));
+    }
+
     /**
      * 🚫 Recursos no encontrados (404)
      * Ejemplo: buscar un empleado o departamento inexistente
@@ -176,11 +197,35 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BusinessRuleException.class)
     public ResponseEntity<ApiResponse<Void>> handleBusinessRule(BusinessRuleException ex) {
+        businessRuleMetrics.record(ex);
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .body(ApiResponse.fail(ex.getMessage()));
     }
 
+    /**
+     * 🧮 Presupuesto SQL excedido (500), solo con sql.budget.mode=fail
+     * Ejemplo: un endpoint que hace una consulta por cada elemento de una lista
+     */
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleSqlBudgetExceeded(SqlBudgetExceededException ex) {
+        return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
+    /**
+     * 🚦 Servicio saturado (503)
+     * Ejemplo: ráfaga de logins con el pool de autenticación lleno
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
     /**
      * 🔒 Violación de integridad de datos (409)
      * Ejemplo: intentar guardar un email duplicado cuando hay constraint único en BD
@@ -194,6 +239,8 @@ public class GlobalExceptionHandler {
         if (errorMessage != null) {
             if (errorMessage.contains("email") || errorMessage.contains("EMAIL") || errorMessage.contains("Email")) {
                 message = "El correo electrónico ya está registrado. Intenta con otro correo o inicia sesión.";
+            } else if (errorMessage.contains("uk_students_phone") || errorMessage.contains("UK_STUDENTS_PHONE")) {
+                message = "Ya existe un usuario con ese teléfono";
             } else if (errorMessage.contains("unique") || errorMessage.contains("UNIQUE") || errorMessage.contains("duplicate")) {
                 message = "Ya existe un registro con estos datos. Verifica la información e intenta nuevamente.";
             } else if (errorMessage.contains("constraint") || errorMessage.contains("CONSTRAINT")) {
@@ -246,7 +293,8 @@ public class GlobalExceptionHandler {
         if (!(ex instanceof BadCredentialsException) && 
             !(ex instanceof UsernameNotFoundException) &&
             !(ex instanceof BusinessRuleException) &&
-            !(ex instanceof ResourceNotFoundException)) {
+            !(ex instanceof ResourceNotFoundException) &&
+            !(ex instanceof ServiceOverloadedException)) {
             ex.printStackTrace(); // 🔍 log útil en desarrollo; puede omitirse en producción
         }
         
@@ -0,0 +1,24 @@
+package com.app.emsx.exceptions;
+
+/**
+ * 🚦 ServiceOverloadedException
+ * ---------------------------------------------------------
+ * Se lanza cuando un pool de trabajo acotado (ej. login/registro) está lleno
+ * y la solicitud se descarta en lugar de esperar.
+ *
+ * Es capturada por el GlobalExceptionHandler y devuelve HTTP 503 (Service Unavailable)
+ * con la cabecera Retry-After.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
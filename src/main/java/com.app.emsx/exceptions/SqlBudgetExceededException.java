@@ -0,0 +1,19 @@
+package com.app.emsx.exceptions;
+
+/**
+ * 🧮 SqlBudgetExceededException
+ * ---------------------------------------------------------
+ * Se lanza (solo con sql.budget.mode=fail) cuando una solicitud HTTP supera
+ * su presupuesto de sentencias SQL o de tiempo de BD.
+ *
+ * Pensada para pruebas de integración: el endpoint que hace demasiadas consultas
+ * falla en lugar de pasar desapercibido.
+ *
+ * Es capturada por el GlobalExceptionHandler y devuelve HTTP 500 (Internal Server Error)
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
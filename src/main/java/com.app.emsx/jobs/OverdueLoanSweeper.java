@@ -0,0 +1,130 @@
+package com.app.emsx.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⏰ OverdueLoanSweeper
+ * -----------------------------------------------------
+ * ✅ Pasa a OVERDUE los préstamos ACTIVE con dueDate vencida y calcula su multa provisional
+ * ✅ Recorre la tabla por rangos de la clave primaria (id > desde AND id <= hasta) de loans.overdue.chunk-size ids
+ * ✅ Cada rango es un solo UPDATE (la BD calcula la multa) con su propio commit: los bloqueos duran milisegundos
+ * ✅ Sin SELECT previo: buscar "los siguientes N vencidos ORDER BY id" lleva a la BD a leer todos los vencidos
+ *   por idx_loans_state_due_date y ordenarlos en cada bloque; un rango de la PK lee a lo sumo chunk-size filas
+ * ✅ Los OVERDUE ya existentes se recalculan en la misma pasada (la multa crece cada día)
+ * ✅ Métricas: loans.overdue.sweep.duration, .rows, .updated y .lag (segundos desde la última pasada completa;
+ *   si el nodo nunca completó una, se cuenta desde 1970 y supera cualquier umbral de alerta)
+ */
+@Slf4j
+@Component
+public class OverdueLoanSweeper {
+
+    // La condición de estado no pisa un préstamo ya devuelto.
+    // CAST: sin él, H2 infiere el parámetro como entero (el tipo de TIMESTAMPDIFF) y trunca la multa diaria
+    private static final String UPDATE_CHUNK =
+            "UPDATE loans SET state = 'OVERDUE', " +
+            "provisional_penalty = ROUND(TIMESTAMPDIFF(DAY, due_date, ?) * CAST(? AS DECIMAL(12, 4)), 2) " +
+            "WHERE id > ? AND id <= ? AND state IN ('ACTIVE', 'OVERDUE') AND due_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final BigDecimal penaltyPerDay;
+    private final int chunkSize;
+    private final long startupDelayMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastDurationMs = new AtomicLong();
+    private final AtomicLong lastRows = new AtomicLong();
+    private final AtomicLong lastCompletedAt = new AtomicLong();
+    private final Counter rowsTotal;
+
+    public OverdueLoanSweeper(
+            JdbcTemplate jdbcTemplate,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${loans.overdue.penalty-per-day:1.00}") BigDecimal penaltyPerDay,
+            @Value("${loans.overdue.chunk-size:1000}") int chunkSize,
+            @Value("${loans.overdue.startup-delay-ms:30000}") long startupDelayMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.penaltyPerDay = penaltyPerDay;
+        this.chunkSize = chunkSize;
+        this.startupDelayMs = startupDelayMs;
+
+        Gauge.builder("loans.overdue.sweep.duration", lastDurationMs, v -> v.get() / 1000.0)
+                .description("Duración de la última pasada del barrido de vencidos")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("loans.overdue.sweep.rows", lastRows, AtomicLong::get)
+                .description("Préstamos actualizados en la última pasada")
+                .register(meterRegistry);
+        Gauge.builder("loans.overdue.sweep.lag", lastCompletedAt,
+                        v -> (System.currentTimeMillis() - v.get()) / 1000.0)
+                .description("Segundos desde la última pasada completa")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.rowsTotal = Counter.builder("loans.overdue.sweep.updated")
+                .description("Préstamos actualizados por el barrido desde el arranque")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ✅ Pasada diaria (por defecto a las 00:05) y otra poco después de arrancar la aplicación
+     */
+    @Scheduled(cron = "${loans.overdue.sweep-cron:0 5 0 * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        taskScheduler.schedule(this::sweep, Instant.now().plusMillis(startupDelayMs));
+    }
+
+    /**
+     * ✅ Ejecuta una pasada completa; si ya hay una en curso no hace nada
+     * @return préstamos actualizados
+     */
+    public long sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Barrido de vencidos ya en curso, se omite");
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        long processed = 0;
+        try {
+            Date today = Date.valueOf(LocalDate.now());
+            // Los préstamos creados durante la pasada vencen después de hoy
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM loans", Long.class);
+            for (long from = 0; maxId != null && from < maxId; from += chunkSize) {
+                processed += jdbcTemplate.update(UPDATE_CHUNK, today, penaltyPerDay, from, from + chunkSize, today);
+            }
+            lastCompletedAt.set(System.currentTimeMillis());
+            return processed;
+        } finally {
+            long duration = System.currentTimeMillis() - start;
+            lastDurationMs.set(duration);
+            lastRows.set(processed);
+            rowsTotal.increment(processed);
+            running.set(false);
+            log.info("Barrido de vencidos: {} préstamos actualizados en {} ms", processed, duration);
+        }
+    }
+}
@@ -33,6 +33,18 @@ public interface AuthorMapper {
     }
 
     default AuthorResponse toResponse(Author entity) {
+        if (entity == null) return null;
+        List<Long> bookIds = entity.getBooks() != null
+                ? entity.getBooks().stream().map(book -> book.getId()).collect(Collectors.toList())
+                : new ArrayList<>();
+        return toResponse(entity, bookIds);
+    }
+
+    /**
+     * Igual que toResponse(entity) con los IDs de libros ya consultados: no inicializa author.books
+     * (los listados los traen en una sola consulta para todos los autores)
+     */
+    default AuthorResponse toResponse(Author entity, List<Long> bookIds) {
         if (entity == null) return null;
         AuthorResponse dto = new AuthorResponse();
         dto.setId(entity.getId());
@@ -45,13 +57,7 @@ public interface AuthorMapper {
         } else {
             dto.setBirthDate(null);
         }
-        if (entity.getBooks() != null) {
-            dto.setBookIds(entity.getBooks().stream()
-                    .map(book -> book.getId())
-                    .collect(Collectors.toList()));
-        } else {
-            dto.setBookIds(new ArrayList<>());
-        }
+        dto.setBookIds(bookIds != null ? bookIds : new ArrayList<>());
         return dto;
     }
 
@@ -33,6 +33,7 @@ public interface LoanMapper {
         dto.setDateLoan(entity.getDateLoan());
         dto.setDueDate(entity.getDueDate());
         dto.setAmount(entity.getAmount());
+        dto.setProvisionalPenalty(entity.getProvisionalPenalty());
         if (entity.getStudent() != null) {
             dto.setStudentId(entity.getStudent().getId());
             dto.setStudentName(entity.getStudent().getFirstName() + " " + entity.getStudent().getLastName());
@@ -0,0 +1,89 @@
+package com.app.emsx.metrics;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⚖️ BusinessRuleMetrics
+ * -----------------------------------------------------
+ * ✅ Counter "business.rules.violated" por cada BusinessRuleException que llega al cliente (409)
+ * ✅ Tags: source = Clase.método del servicio que la lanzó (se saltan exceptions.* y validation.*)
+ *   y rule = el mensaje sin valores variables (hasta el primer ':' o ';', números → #, textos entre comillas → ?)
+ * ✅ Como el mensaje puede incluir datos del cliente, a partir de MAX_RULES reglas distintas se agrupan en "otra"
+ */
+@Component
+@RequiredArgsConstructor
+public class BusinessRuleMetrics {
+
+    static final int MAX_RULES = 200;
+    private static final int MAX_RULE_LENGTH = 80;
+    private static final String APP_PACKAGE = "com.app.emsx.";
+    /** Lanzadas desde aquí en nombre del servicio que las llama */
+    private static final List<String> HELPER_PACKAGES = List.of("com.app.emsx.exceptions.", "com.app.emsx.validation.");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public void record(BusinessRuleException ex) {
+        String source = source(ex);
+        String rule = rule(ex.getMessage());
+        String key = source + '|' + rule;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() >= MAX_RULES) {
+                rule = "otra";
+                key = source + '|' + rule;
+            }
+            String finalRule = rule;
+            counter = counters.computeIfAbsent(key, k -> Counter.builder("business.rules.violated")
+                    .description("Solicitudes rechazadas por una regla de negocio (HTTP 409)")
+                    .tag("source", source)
+                    .tag("rule", finalRule)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    /** Primer método de la aplicación en la pila (fuera de los paquetes auxiliares) */
+    private static String source(Throwable ex) {
+        for (StackTraceElement frame : ex.getStackTrace()) {
+            String className = frame.getClassName();
+            if (className.startsWith(APP_PACKAGE) && HELPER_PACKAGES.stream().noneMatch(className::startsWith)) {
+                String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                int nested = simpleName.indexOf('$');
+                return (nested > 0 ? simpleName.substring(0, nested) : simpleName) + '.' + frame.getMethodName();
+            }
+        }
+        return "unknown";
+    }
+
+    static String rule(String message) {
+        if (message == null || message.isBlank()) return "sin mensaje";
+        StringBuilder rule = new StringBuilder(Math.min(message.length(), MAX_RULE_LENGTH));
+        boolean quoted = false;
+        for (int i = 0; i < message.length() && rule.length() < MAX_RULE_LENGTH; i++) {
+            char c = message.charAt(i);
+            if (c == '\'') {
+                if (!quoted) rule.append('?');
+                quoted = !quoted;
+            } else if (quoted) {
+                continue;
+            } else if (c == ':' || c == ';') {
+                break;
+            } else if (Character.isDigit(c)) {
+                if (rule.isEmpty() || rule.charAt(rule.length() - 1) != '#') rule.append('#');
+            } else {
+                rule.append(c);
+            }
+        }
+        String result = rule.toString().strip();
+        return result.isEmpty() ? "sin mensaje" : result;
+    }
+}
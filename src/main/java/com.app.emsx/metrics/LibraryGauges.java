@@ -0,0 +1,80 @@
+package com.app.emsx.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * 📚 LibraryGauges
+ * -----------------------------------------------------
+ * ✅ library.inventory.copies{state=total|available|borrowed}: suma de copias del inventario
+ * ✅ library.loans.open{state=ACTIVE|OVERDUE}: préstamos sin devolver
+ * ✅ Dos consultas agregadas cada metrics.library.refresh-ms en una tarea @Scheduled, no una por gauge ni por scrape
+ * ✅ El scrape solo lee el último resultado: nunca espera a la BD ni bloquea otro hilo
+ * ✅ Si la BD no responde se mantienen los últimos valores leídos
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LibraryGauges {
+
+    private record Totals(long totalCopies, long availableCopies, long borrowedCopies,
+                          long activeLoans, long overdueLoans) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Totals totals = new Totals(0, 0, 0, 0, 0);
+
+    @PostConstruct
+    void registerMetrics() {
+        copies("total", Totals::totalCopies);
+        copies("available", Totals::availableCopies);
+        copies("borrowed", Totals::borrowedCopies);
+        loans("ACTIVE", Totals::activeLoans);
+        loans("OVERDUE", Totals::overdueLoans);
+    }
+
+    private void copies(String state, ToLongFunction<Totals> value) {
+        Gauge.builder("library.inventory.copies", this, gauges -> value.applyAsLong(gauges.totals))
+                .description("Copias en inventario por estado")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    private void loans(String state, ToLongFunction<Totals> value) {
+        Gauge.builder("library.loans.open", this, gauges -> value.applyAsLong(gauges.totals))
+                .description("Préstamos sin devolución por estado")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    /**
+     * ✅ Relee los totales (la primera vez al iniciar)
+     */
+    @Scheduled(fixedDelayString = "${metrics.library.refresh-ms:15000}")
+    public void refresh() {
+        try {
+            long[] copies = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(total_copies), 0), COALESCE(SUM(available_copies), 0), "
+                            + "COALESCE(SUM(borrowed_copies), 0) FROM inventory",
+                    (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+            long[] loans = new long[2];
+            jdbcTemplate.query("SELECT state, COUNT(*) FROM loans WHERE state IN ('ACTIVE', 'OVERDUE') GROUP BY state",
+                    rs -> {
+                        loans["ACTIVE".equals(rs.getString(1)) ? 0 : 1] = rs.getLong(2);
+                    });
+            totals = new Totals(copies[0], copies[1], copies[2], loans[0], loans[1]);
+        } catch (DataAccessException e) {
+            log.debug("No se pudieron leer los totales de inventario y préstamos: {}", e.getMessage());
+        }
+    }
+}
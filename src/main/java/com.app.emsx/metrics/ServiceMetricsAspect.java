@@ -0,0 +1,61 @@
+package com.app.emsx.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ ServiceMetricsAspect
+ * -----------------------------------------------------
+ * ✅ Timer "service.method" para cada método público de los *ServiceImpl
+ *   (tags: class, method, exception = none o el tipo lanzado)
+ * ✅ Histograma de percentiles entre 1 ms y 30 s (Prometheus calcula p50/p99/p999 por método)
+ * ✅ Solo llamadas que pasan por el proxy de Spring: las llamadas internas (this.metodo()) no se miden aparte
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    /** Un Timer por clase + método + excepción: se evita armar el builder en cada llamada */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.app.emsx.serviceimpls.*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                    joinPoint.getSignature().getName(), exception)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String className, String method, String exception) {
+        return timers.computeIfAbsent(className + '.' + method + '/' + exception, key -> Timer.builder("service.method")
+                .description("Tiempo de cada método de servicio")
+                .tag("class", className)
+                .tag("method", method)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry));
+    }
+}
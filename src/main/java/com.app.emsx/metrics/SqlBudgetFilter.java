@@ -0,0 +1,192 @@
+package com.app.emsx.metrics;
+
+import com.app.emsx.metrics.SqlRequestStats.Budget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧮 SqlBudgetFilter
+ * -----------------------------------------------------
+ * ✅ Abre un SqlRequestStats por solicitud (antes de la cadena de seguridad, así cuenta también la carga del usuario)
+ * ✅ sql.stats.headers=true (desarrollo): cabeceras X-Sql-Statements, X-Sql-Time-Ms y X-Sql-Rows
+ * ✅ sql.stats.metrics=true (producción): http.server.sql.statements / .time / .rows por método + patrón de URI
+ * ✅ Presupuesto por endpoint (sql.budget.endpoints, si no sql.budget.default) según sql.budget.mode:
+ *   off = no se revisa; log = warning + counter http.server.sql.budget.exceeded;
+ *   fail = además la sentencia que lo supera lanza SqlBudgetExceededException (500, para pruebas de integración)
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    static final String UNKNOWN_URI = "UNKNOWN";
+
+    private enum Mode { OFF, LOG, FAIL }
+
+    private record Meters(DistributionSummary statements, Timer time, DistributionSummary rows) { }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headers;
+    private final boolean metrics;
+    private final Mode mode;
+    private final Budget defaultBudget;
+    /** "GET /api/authors/{id}" o "* /api/authors/{id}" → presupuesto */
+    private final Map<String, Budget> budgets;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> exceededCounters = new ConcurrentHashMap<>();
+
+    public SqlBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql.stats.headers:false}") boolean headers,
+            @Value("${sql.stats.metrics:true}") boolean metrics,
+            @Value("${sql.budget.mode:log}") String mode,
+            @Value("${sql.budget.default:50/1000}") String defaultBudget,
+            @Value("${sql.budget.endpoints:}") String endpointBudgets
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.metrics = metrics;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.defaultBudget = parseBudget(defaultBudget);
+        this.budgets = parseBudgets(endpointBudgets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.open(() -> budgetFor(request), mode == Mode.FAIL);
+        HttpServletResponse target = headers ? new HeaderWriter(response, stats) : response;
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            SqlRequestStats.close();
+            if (target instanceof HeaderWriter writer) {
+                writer.writeHeaders();
+            }
+            publish(request, stats);
+        }
+    }
+
+    private void publish(HttpServletRequest request, SqlRequestStats stats) {
+        String uri = uri(request);
+        String key = request.getMethod() + ' ' + uri;
+        if (metrics) {
+            Meters m = meters.computeIfAbsent(key, k -> new Meters(
+                    DistributionSummary.builder("http.server.sql.statements")
+                            .description("Sentencias SQL por solicitud HTTP")
+                            .tags("method", request.getMethod(), "uri", uri)
+                            .register(meterRegistry),
+                    Timer.builder("http.server.sql.time")
+                            .description("Tiempo de BD (ejecución + lectura de filas) por solicitud HTTP")
+                            .tags("method", request.getMethod(), "uri", uri)
+                            .register(meterRegistry),
+                    DistributionSummary.builder("http.server.sql.rows")
+                            .description("Filas leídas por solicitud HTTP")
+                            .tags("method", request.getMethod(), "uri", uri)
+                            .register(meterRegistry)));
+            m.statements().record(stats.statements());
+            m.time().record(stats.nanos(), TimeUnit.NANOSECONDS);
+            m.rows().record(stats.rows());
+        }
+        if (mode == Mode.OFF) return;
+
+        Budget budget = stats.budget() != null ? stats.budget() : defaultBudget;
+        String exceeded = stats.exceeded(budget);
+        if (exceeded != null) {
+            log.warn("Presupuesto SQL excedido en {}: {} sentencia(s), {} ms de BD, {} fila(s) (máximo {} sentencias y {} ms)",
+                    key, stats.statements(), stats.millis(), stats.rows(), budget.maxStatements(), budget.maxMillis());
+            exceededCounters.computeIfAbsent(key + '|' + exceeded, k -> Counter.builder("http.server.sql.budget.exceeded")
+                            .description("Solicitudes HTTP que superaron su presupuesto de sentencias o de tiempo de BD")
+                            .tags("method", request.getMethod(), "uri", uri, "limit", exceeded)
+                            .register(meterRegistry))
+                    .increment();
+        }
+    }
+
+    /** null mientras no se conozca el endpoint (filtros previos al DispatcherServlet) */
+    private Budget budgetFor(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) return null;
+        Budget budget = budgets.get(request.getMethod() + ' ' + pattern);
+        if (budget == null) budget = budgets.get("* " + pattern);
+        return budget != null ? budget : defaultBudget;
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_URI;
+    }
+
+    /** "GET /api/authors/{id}=5/100, * /api/books=10/200" (sentencias/ms) */
+    static Map<String, Budget> parseBudgets(String value) {
+        Map<String, Budget> result = new HashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) continue;
+            int eq = entry.lastIndexOf('=');
+            String[] endpoint = eq > 0 ? entry.substring(0, eq).trim().split("\\s+") : new String[0];
+            if (endpoint.length != 2) {
+                throw new IllegalArgumentException("sql.budget.endpoints: se esperaba 'MÉTODO /ruta=sentencias/ms' y se recibió '" + entry.trim() + "'");
+            }
+            result.put(endpoint[0].toUpperCase(Locale.ROOT) + ' ' + endpoint[1], parseBudget(entry.substring(eq + 1)));
+        }
+        return result;
+    }
+
+    static Budget parseBudget(String value) {
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Presupuesto SQL inválido '" + value.trim() + "' (formato: sentencias/ms)");
+        }
+        return new Budget(Integer.parseInt(parts[0].trim()), Long.parseLong(parts[1].trim()));
+    }
+
+    /** Escribe las cabeceras justo antes de que la respuesta se confirme (después ya no se pueden agregar) */
+    private static final class HeaderWriter extends OnCommittedResponseWrapper {
+
+        private final SqlRequestStats stats;
+        private boolean written;
+
+        HeaderWriter(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (written || response.isCommitted()) return;
+            written = true;
+            response.setHeader("X-Sql-Statements", String.valueOf(stats.statements()));
+            response.setHeader("X-Sql-Time-Ms", String.valueOf(stats.millis()));
+            response.setHeader("X-Sql-Rows", String.valueOf(stats.rows()));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.app.emsx.metrics;
+
+import com.app.emsx.exceptions.SqlBudgetExceededException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 🧮 SqlRequestStats
+ * -----------------------------------------------------
+ * ✅ Sentencias, tiempo de BD y filas leídas de la solicitud HTTP en curso (un objeto por solicitud, en un ThreadLocal)
+ * ✅ Lo llena SqlStatsDataSource; lo abre y lo publica SqlBudgetFilter
+ * ✅ Solo cuenta el hilo de la solicitud: login (pool de autenticación) y exportaciones (respuesta asíncrona)
+ *   corren en otros hilos y no se incluyen
+ * ✅ Con failFast (sql.budget.mode=fail) la sentencia que supera el presupuesto lanza SqlBudgetExceededException
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    /** Presupuesto de una solicitud: máximo de sentencias y de tiempo de BD (ms) */
+    public record Budget(int maxStatements, long maxMillis) { }
+
+    private final Supplier<Budget> budgetResolver;
+    private final boolean failFast;
+    private Budget budget;
+    private boolean failed;
+    private int statements;
+    private long nanos;
+    private long rows;
+
+    private SqlRequestStats(Supplier<Budget> budgetResolver, boolean failFast) {
+        this.budgetResolver = budgetResolver;
+        this.failFast = failFast;
+    }
+
+    /**
+     * ✅ Empieza a contar en el hilo actual.
+     * El presupuesto se resuelve en cada sentencia hasta que se conoce el endpoint (el resolver devuelve no null)
+     */
+    static SqlRequestStats open(Supplier<Budget> budgetResolver, boolean failFast) {
+        SqlRequestStats stats = new SqlRequestStats(budgetResolver, failFast);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (failFast && !failed) {
+            Budget limit = budget();
+            if (limit != null && exceeded(limit) != null) {
+                failFast(limit);
+            }
+        }
+    }
+
+    void rowsFetched(long count, long elapsedNanos) {
+        rows += count;
+        nanos += elapsedNanos;
+    }
+
+    /** Una sola vez por solicitud: las sentencias del manejo del error no vuelven a fallar */
+    private void failFast(Budget limit) {
+        failed = true;
+        throw new SqlBudgetExceededException("Presupuesto SQL excedido: " + statements + " sentencia(s) y "
+                + millis() + " ms de BD (máximo " + limit.maxStatements() + " y " + limit.maxMillis() + " ms)");
+    }
+
+    Budget budget() {
+        if (budget == null) {
+            budget = budgetResolver.get();
+        }
+        return budget;
+    }
+
+    /** "statements", "time" o null si está dentro del presupuesto */
+    String exceeded(Budget limit) {
+        if (statements > limit.maxStatements()) return "statements";
+        if (millis() > limit.maxMillis()) return "time";
+        return null;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public long rows() {
+        return rows;
+    }
+}
@@ -0,0 +1,122 @@
+package com.app.emsx.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Set;
+
+/**
+ * 🔌 SqlStatsDataSource
+ * -----------------------------------------------------
+ * ✅ Envuelve el DataSource de la app: dentro de una solicitud HTTP (SqlRequestStats abierto) entrega
+ *   conexiones que miden cada execute* (sentencias + tiempo) y cada ResultSet.next() (filas + tiempo)
+ * ✅ Fuera de una solicitud (jobs, carga inicial, migraciones) devuelve la conexión original sin proxies
+ * ✅ unwrap/isWrapperFor llegan al pool real (las métricas de Hikari siguen funcionando)
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public SqlStatsDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * ✅ Aplica el envoltorio a todos los DataSource del contexto (sql.stats.enabled=false lo desactiva)
+     */
+    @Component
+    @ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+    static class Wrapper implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatsDataSource)) {
+                return new SqlStatsDataSource(dataSource);
+            }
+            return bean;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            // createStatement / prepareStatement / prepareCall
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(method.getReturnType(), new StatementHandler(statement, stats));
+            }
+            return result;
+        });
+    }
+
+    /** execute* cuenta una sentencia (un lote cuenta como una ida a la BD) */
+    private record StatementHandler(Statement statement, SqlRequestStats stats) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = SqlStatsDataSource.invoke(statement, method, args);
+                } finally {
+                    stats.statementExecuted(System.nanoTime() - start);
+                }
+                return result instanceof ResultSet resultSet ? resultSet(resultSet, stats) : result;
+            }
+            Object result = SqlStatsDataSource.invoke(statement, method, args);
+            if (result instanceof ResultSet resultSet && "getResultSet".equals(method.getName())) {
+                return resultSet(resultSet, stats);
+            }
+            return result;
+        }
+    }
+
+    private static ResultSet resultSet(ResultSet resultSet, SqlRequestStats stats) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            if (!"next".equals(method.getName())) {
+                return invoke(resultSet, method, args);
+            }
+            long start = System.nanoTime();
+            boolean hasRow = resultSet.next();
+            stats.rowsFetched(hasRow ? 1 : 0, System.nanoTime() - start);
+            return hasRow;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /** Llama al objeto real y devuelve la excepción original (SQLException), no InvocationTargetException */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,12 +1,50 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+    /**
+     * Listado completo desde la caché de consultas (ids) + caché de entidades; se invalida al escribir en la tabla
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
+    List<Author> findAll();
+
+    /**
+     * Listado paginado por keyset: WHERE (orden, id) > (cursor) ORDER BY orden, id LIMIT n
+     */
+    Window<Author> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     boolean existsByEmail(String email);
-}
 
+    /**
+     * Autores existentes entre un conjunto de emails (importación masiva): (id, email, birthDate)
+     */
+    @Query("SELECT a.id, a.email, a.birthDate FROM Author a WHERE a.email IN :emails")
+    List<Object[]> findIdentitiesByEmailIn(@Param("emails") Collection<String> emails);
 
+    /**
+     * Cantidad de libros por autor en una sola consulta agregada: (id, firstName, lastName, libros)
+     */
+    @Query("SELECT a.id, a.firstName, a.lastName, COUNT(b.id) FROM Author a LEFT JOIN a.books b " +
+            "GROUP BY a.id, a.firstName, a.lastName ORDER BY a.id")
+    List<Object[]> countBooksPerAuthor();
+}
@@ -1,18 +1,89 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Book;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+    /**
+     * Las lecturas de listado y detalle traen en el mismo SELECT las asociaciones
+     * que usa BookMapper.toResponse, así un listado no dispara una consulta por fila (N+1).
+     */
+    @Override
+    @EntityGraph(attributePaths = {"author", "inventory"})
+    List<Book> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "inventory"})
+    Optional<Book> findById(Long id);
+
+    /**
+     * Listado paginado por keyset: WHERE (orden, id) > (cursor) ORDER BY orden, id LIMIT n
+     */
+    @EntityGraph(attributePaths = {"author", "inventory"})
+    Window<Book> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     // Buscar libro por título y autorId (para validar duplicados)
     @Query("SELECT b FROM Book b WHERE b.title = :title AND b.author.id = :authorId")
     Optional<Book> findByTitleAndAuthorId(@Param("title") String title, @Param("authorId") Long authorId);
-}
 
+    /**
+     * Pares (title, authorId) ya registrados entre varios autores y títulos: duplicados de un bloque en una consulta
+     */
+    @Query("SELECT b.title, b.author.id FROM Book b WHERE b.author.id IN :authorIds AND b.title IN :titles")
+    List<Object[]> findTitleAuthorPairs(@Param("authorIds") Collection<Long> authorIds,
+                                        @Param("titles") Collection<String> titles);
+
+    /**
+     * Filas para el índice de búsqueda por keyset de id: (id, title, genre, editorial, authorId, firstName, lastName)
+     */
+    @Query("SELECT b.id, b.title, b.genre, b.editorial, a.id, a.firstName, a.lastName FROM Book b " +
+            "LEFT JOIN b.author a WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSearchRows(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Fila de un solo libro para actualizar el índice de búsqueda (mismas columnas que findSearchRows)
+     */
+    @Query("SELECT b.id, b.title, b.genre, b.editorial, a.id, a.firstName, a.lastName FROM Book b " +
+            "LEFT JOIN b.author a WHERE b.id = :id")
+    List<Object[]> findSearchRow(@Param("id") Long id);
 
+    /**
+     * Filas de varios libros para el índice de búsqueda (ej. un bloque de la importación)
+     */
+    @Query("SELECT b.id, b.title, b.genre, b.editorial, a.id, a.firstName, a.lastName FROM Book b " +
+            "LEFT JOIN b.author a WHERE b.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // ¿El autor tiene libros? (para impedir eliminarlo sin cargar la colección)
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Book b WHERE b.author.id = :authorId) THEN true ELSE false END")
+    boolean existsByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Pares (authorId, bookId) de varios autores en una consulta: listados de autores sin cargar author.books
+     */
+    @Query("SELECT b.author.id, b.id FROM Book b WHERE b.author.id IN :authorIds ORDER BY b.id")
+    List<Object[]> findIdsByAuthorIds(@Param("authorIds") Collection<Long> authorIds);
+
+    /**
+     * Todos los pares (authorId, bookId): lista completa de autores
+     */
+    @Query("SELECT b.author.id, b.id FROM Book b WHERE b.author IS NOT NULL ORDER BY b.id")
+    List<Object[]> findAllAuthorBookIds();
+
+    // IDs existentes dentro de un conjunto (para validar lotes con una sola consulta)
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,11 +1,84 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Inventory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
-}
+    /**
+     * Las lecturas de listado y detalle traen en el mismo SELECT las asociaciones
+     * que usa InventoryMapper.toResponse, así un listado no dispara una consulta por fila (N+1).
+     */
+    @Override
+    @EntityGraph(attributePaths = {"book"})
+    List<Inventory> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"book"})
+    Optional<Inventory> findById(Long id);
+
+    /**
+     * Listado paginado por keyset: WHERE (orden, id) > (cursor) ORDER BY orden, id LIMIT n
+     */
+    @EntityGraph(attributePaths = {"book"})
+    Window<Inventory> findBy(ScrollPosition position, Sort sort, Limit limit);
 
+    /**
+     * Reserva una copia del libro con un único UPDATE condicional.
+     * Solo descuenta si quedan copias disponibles, así dos préstamos concurrentes
+     * de la última copia no pueden tener éxito a la vez.
+     * Retorna la cantidad de filas afectadas (0 = sin copias o sin inventario).
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.availableCopies = i.availableCopies - 1, " +
+            "i.borrowedCopies = COALESCE(i.borrowedCopies, 0) + 1, i.lastUpdated = :now " +
+            "WHERE i.book.id = :bookId AND i.availableCopies > 0")
+    int reserveCopy(@Param("bookId") Long bookId, @Param("now") LocalDateTime now);
 
+    /**
+     * Indica si el libro tiene inventario (para distinguir el motivo cuando reserveCopy no afecta filas).
+     */
+    boolean existsByBookId(Long bookId);
+
+    /**
+     * Libera una copia del libro (devolución) con un único UPDATE atómico.
+     * borrowedCopies nunca baja de 0.
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.availableCopies = COALESCE(i.availableCopies, 0) + 1, " +
+            "i.borrowedCopies = CASE WHEN COALESCE(i.borrowedCopies, 0) > 0 THEN i.borrowedCopies - 1 ELSE 0 END, " +
+            "i.lastUpdated = :now " +
+            "WHERE i.book.id = :bookId")
+    int releaseCopy(@Param("bookId") Long bookId, @Param("now") LocalDateTime now);
+
+    /**
+     * Carga y bloquea (SELECT ... FOR UPDATE) los inventarios de varios libros en una sola consulta,
+     * junto con su libro. Se ordena por id para bloquear siempre en el mismo orden y evitar deadlocks
+     * entre lotes concurrentes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.book b WHERE b.id IN :bookIds ORDER BY i.id")
+    List<Inventory> findByBookIdsForUpdate(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * Inventarios de un conjunto de libros (con su libro) en una sola consulta, sin bloqueo.
+     */
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.book b WHERE b.id IN :bookIds")
+    List<Inventory> findByBookIds(@Param("bookIds") Collection<Long> bookIds);
+}
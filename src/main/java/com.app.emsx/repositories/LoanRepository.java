@@ -1,34 +1,99 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Loan;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     /**
-     * Busca préstamos activos de un estudiante para un libro específico
+     * Las lecturas de listado y detalle traen en el mismo SELECT las asociaciones
+     * que usa LoanMapper.toResponse, así un listado no dispara una consulta por fila (N+1).
+     */
+    @Override
+    @EntityGraph(attributePaths = {"student", "book", "book.inventory", "returnE"})
+    List<Loan> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"student", "book", "book.inventory", "returnE"})
+    Optional<Loan> findById(Long id);
+
+    /**
+     * Listado paginado por keyset: WHERE (orden, id) > (cursor) ORDER BY orden, id LIMIT n
+     */
+    @EntityGraph(attributePaths = {"student", "book", "book.inventory", "returnE"})
+    Window<Loan> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
      * Un préstamo se considera activo si su estado es ACTIVE o OVERDUE
      */
-    @Query("SELECT l FROM Loan l WHERE l.student.id = :studentId AND l.book.id = :bookId AND l.state IN :states")
-    List<Loan> findActiveLoansByStudentAndBook(
-            @Param("studentId") Long studentId, 
-            @Param("bookId") Long bookId, 
-            @Param("states") List<String> states
+    List<String> ACTIVE_STATES = List.of("ACTIVE", "OVERDUE");
+
+    /**
+     * ¿El estudiante ya tiene un préstamo activo de este libro? EXISTS sobre el índice (student_id, book_id, state)
+     */
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Loan l WHERE l.student.id = :studentId AND l.book.id = :bookId " +
+            "AND l.state IN :states) THEN true ELSE false END")
+    boolean existsActiveByStudentAndBook(
+            @Param("studentId") Long studentId,
+            @Param("bookId") Long bookId,
+            @Param("states") Collection<String> states
     );
-    
+
     /**
-     * Busca préstamos activos de un libro (sin importar el estudiante)
-     * Un préstamo se considera activo si su estado es ACTIVE o OVERDUE
+     * ¿El estudiante tiene algún préstamo activo?
      */
-    @Query("SELECT l FROM Loan l WHERE l.book.id = :bookId AND l.state IN :states")
-    List<Loan> findActiveLoansByBook(
-            @Param("bookId") Long bookId, 
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Loan l WHERE l.student.id = :studentId AND l.state IN :states) " +
+            "THEN true ELSE false END")
+    boolean existsActiveByStudent(@Param("studentId") Long studentId, @Param("states") Collection<String> states);
+
+    /**
+     * ¿El libro tiene algún préstamo activo? EXISTS sobre el índice (book_id, state)
+     */
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Loan l WHERE l.book.id = :bookId AND l.state IN :states) " +
+            "THEN true ELSE false END")
+    boolean existsActiveByBook(@Param("bookId") Long bookId, @Param("states") Collection<String> states);
+
+    /**
+     * ¿Algún libro del autor tiene préstamos activos? Una sola consulta (loans JOIN books por author_id)
+     */
+    @Query("SELECT CASE WHEN EXISTS (SELECT 1 FROM Loan l JOIN l.book b WHERE b.author.id = :authorId " +
+            "AND l.state IN :states) THEN true ELSE false END")
+    boolean existsActiveByAuthor(@Param("authorId") Long authorId, @Param("states") Collection<String> states);
+
+    /**
+     * Cantidad de préstamos activos de un libro (copias realmente prestadas)
+     */
+    @Query("SELECT COUNT(l) FROM Loan l WHERE l.book.id = :bookId AND l.state IN :states")
+    long countActiveByBook(@Param("bookId") Long bookId, @Param("states") Collection<String> states);
+
+    /**
+     * Pares (studentId, bookId) con préstamo activo dentro de un conjunto de estudiantes y libros.
+     * Permite validar un lote completo con una sola consulta.
+     */
+    @Query("SELECT l.student.id, l.book.id FROM Loan l WHERE l.student.id IN :studentIds AND l.book.id IN :bookIds AND l.state IN :states")
+    List<Object[]> findActivePairs(
+            @Param("studentIds") Collection<Long> studentIds,
+            @Param("bookIds") Collection<Long> bookIds,
             @Param("states") List<String> states
     );
-}
 
+    /**
+     * Préstamos por mes desde una fecha: (año, mes, cantidad)
+     */
+    @Query("SELECT YEAR(l.dateLoan), MONTH(l.dateLoan), COUNT(l) FROM Loan l WHERE l.dateLoan >= :from " +
+            "GROUP BY YEAR(l.dateLoan), MONTH(l.dateLoan)")
+    List<Object[]> countPerMonthSince(@Param("from") LocalDate from);
+}
@@ -1,17 +1,48 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Return;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReturnRepository extends JpaRepository<Return, Long> {
+    /**
+     * Las lecturas de listado y detalle traen en el mismo SELECT las asociaciones
+     * que usa ReturnMapper.toResponse, así un listado no dispara una consulta por fila (N+1).
+     */
+    @Override
+    @EntityGraph(attributePaths = {"loan"})
+    List<Return> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"loan"})
+    Optional<Return> findById(Long id);
+
+    /**
+     * Listado paginado por keyset: WHERE (orden, id) > (cursor) ORDER BY orden, id LIMIT n
+     */
+    @EntityGraph(attributePaths = {"loan"})
+    Window<Return> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     
     @Query("SELECT DISTINCT r FROM Return r LEFT JOIN FETCH r.loan")
     List<Return> findAllWithLoan();
-}
-
 
+    /**
+     * Devoluciones por mes desde una fecha: (año, mes, cantidad)
+     */
+    @Query("SELECT YEAR(r.dateReturn), MONTH(r.dateReturn), COUNT(r) FROM Return r WHERE r.dateReturn >= :from " +
+            "GROUP BY YEAR(r.dateReturn), MONTH(r.dateReturn)")
+    List<Object[]> countPerMonthSince(@Param("from") LocalDate from);
+}
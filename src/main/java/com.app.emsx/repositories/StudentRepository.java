@@ -1,13 +1,49 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+    /**
+     * Listado completo desde la caché de consultas (ids) + caché de entidades; se invalida al escribir en la tabla
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
+    List<Student> findAll();
+
+    /**
+     * Listado paginado por keyset: WHERE (orden, id) > (cursor) ORDER BY orden, id LIMIT n
+     */
+    Window<Student> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     boolean existsByEmail(String email);
     boolean existsByCodigo(String codigo);
     boolean existsByPhone(String phone);
+
+    /**
+     * Email, código y teléfono de los estudiantes que ya usan alguno de los valores, en una sola consulta
+     * (un parámetro null no coincide con nada; excludeId = el estudiante que se está actualizando)
+     */
+    @Query("SELECT s.email, s.codigo, s.phone FROM Student s " +
+           "WHERE (s.email = :email OR s.codigo = :codigo OR s.phone = :phone) " +
+           "AND (:excludeId IS NULL OR s.id <> :excludeId)")
+    List<Object[]> findUniqueConflicts(@Param("email") String email, @Param("codigo") String codigo,
+                                       @Param("phone") String phone, @Param("excludeId") Long excludeId, Limit limit);
 }
 
@@ -0,0 +1,88 @@
+package com.app.emsx.security;
+
+import com.app.emsx.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * AuthWorkerPool
+ * -----------------------------------------------------
+ * ✔ Pool propio y acotado para login/registro (BCrypt consume ~100 ms de CPU por operación)
+ * ✔ Una ráfaga de logins no ocupa los hilos de Tomcat que atienden al resto de endpoints
+ * ✔ Cola con capacidad fija: si está llena se responde 503 + Retry-After de inmediato
+ * ✔ Métricas: auth.queue.wait (espera en cola), auth.rejected y auth.queue.depth
+ */
+@Component
+public class AuthWorkerPool {
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    public AuthWorkerPool(
+            MeterRegistry meterRegistry,
+            @Value("${auth.executor.threads:0}") int threads,
+            @Value("${auth.executor.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.executor.retry-after-seconds:2}") long retryAfterSeconds
+    ) {
+        // Trabajo de CPU: por defecto un hilo por núcleo
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-worker-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.meterRegistry = meterRegistry;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = Counter.builder("auth.rejected")
+                .description("Solicitudes de autenticación descartadas por pool lleno")
+                .register(meterRegistry);
+        Gauge.builder("auth.queue.depth", executor, e -> e.getQueue().size())
+                .description("Solicitudes de autenticación esperando en cola")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ✅ Ejecuta la operación en el pool; lanza ServiceOverloadedException si la cola está llena
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer queueWait = Timer.builder("auth.queue.wait")
+                .description("Tiempo en cola antes de ejecutar login/registro")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "El servicio de autenticación está saturado. Intenta nuevamente en unos segundos.",
+                    retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,7 @@
 package com.app.emsx.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +22,7 @@ import java.io.IOException;
  * JwtAuthenticationFilter
  * -----------------------------------------------------
  * ✔ Intercepta todas las solicitudes HTTP
- * ✔ Extrae y valida el token JWT del encabezado Authorization
+ * ✔ Extrae y valida el token JWT del encabezado Authorization (una sola verificación por token)
  * ✔ Autentica al usuario si el token es válido
  * ✔ Permite pasar la solicitud al siguiente filtro en la cadena
  */
@@ -30,6 +32,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     protected void doFilterInternal(
@@ -40,7 +43,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
-        final String username;
+        final Claims claims;
 
         // 🔍 Si no hay cabecera o no empieza con "Bearer ", continuar sin procesar
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -51,15 +54,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 🧾 Extraer el token JWT (sin la palabra "Bearer ")
         jwt = authHeader.substring(7);
 
-        // 👤 Extraer usuario desde el token
-        username = jwtService.extractUsername(jwt);
+        // 🔏 Verificar firma y expiración una sola vez (tokens repetidos salen de la caché)
+        try {
+            claims = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token inválido o expirado: la solicitud sigue sin autenticación
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 👤 Extraer usuario desde los claims ya verificados
+        final String username = claims.getSubject();
 
         // 🔐 Validar token si aún no hay autenticación en contexto
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Principal desde caché (sin ir a la BD en cada request)
+            UserDetails userDetails = userPrincipalCache.getOrLoad(username, userDetailsService);
 
             // ✅ Validar correctamente con el objeto UserDetails
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -1,15 +1,26 @@
 package com.app.emsx.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -18,7 +29,11 @@ import java.util.function.Function;
  * ✔ Genera y valida tokens JWT
  * ✔ Carga la clave desde .env o variables del sistema
  * ✔ Extrae claims, usuario y expiración
+ * ✔ Un solo JwtParser reutilizable y caché de tokens ya verificados (clave = SHA-256 del token,
+ *   expira junto con el token): un token repetido no vuelve a verificar la firma
+ * ✔ Timer jwt.verification{result=cached|verified|invalid}
  */
+@Slf4j
 @Service
 public class JwtService {
 
@@ -26,7 +41,27 @@ public class JwtService {
             .ignoreIfMissing() // Evita excepción si .env no existe
             .load();
 
+    private final MeterRegistry meterRegistry;
+    private final long cacheMaxSize;
+
     private Key key;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedTokens;
+
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer invalidTimer;
+
+    /**
+     * Sin Spring (ej. benchmarks) se pasa un SimpleMeterRegistry
+     */
+    public JwtService(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.cacheMaxSize = cacheMaxSize;
+    }
 
     /**
      * ✅ Inicializa la clave al iniciar el servicio (producción segura)
@@ -58,7 +93,38 @@ public class JwtService {
         }
 
         this.key = Keys.hmacShaKeyFor(keyBytes);
-        System.out.println("🔑 JWT_SECRET cargada correctamente (" + keyBytes.length * 8 + " bits)");
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String hash, Claims claims, long currentTime) {
+                        return nanosUntilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, Claims claims, long currentTime, long currentDuration) {
+                        return nanosUntilExpiration(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.cachedTimer = verificationTimer("cached");
+        this.verifiedTimer = verificationTimer("verified");
+        this.invalidTimer = verificationTimer("invalid");
+        log.info("🔑 JWT_SECRET cargada correctamente ({} bits)", keyBytes.length * 8);
+    }
+
+    private Timer verificationTimer(String result) {
+        return Timer.builder("jwt.verification")
+                .description("Verificación de tokens: desde caché, firma verificada o token rechazado")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     private Key getSignInKey() {
@@ -68,6 +134,35 @@ public class JwtService {
         return key;
     }
 
+    /**
+     * ✅ Verifica el token (firma + expiración) como máximo una vez mientras siga vigente.
+     * Lanza JwtException si el token es inválido o expiró.
+     */
+    public Claims verify(String token) {
+        if (parser == null) {
+            initKey();
+        }
+        long start = System.nanoTime();
+        String hash = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null && !isExpired(cached)) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (RuntimeException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(hash, claims);
+        }
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
     // ✅ Extrae el username (subject)
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -79,13 +174,9 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    // ✅ Parse completo del token
+    // ✅ Parse completo del token (verificado una sola vez, luego desde caché)
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token);
     }
 
     // ✅ Genera token con claims extra y roles
@@ -106,15 +197,31 @@ public class JwtService {
 
     // ✅ Valida token
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // ✅ Valida claims ya verificados (evita volver a parsear el token)
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !isExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    private static long nanosUntilExpiration(Claims claims) {
+        long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.app.emsx.security;
+
+import com.app.emsx.entities.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * UserCacheInvalidationListener
+ * -----------------------------------------------------
+ * ✔ Listener JPA de User (Hibernate lo obtiene como bean de Spring)
+ * ✔ Al actualizar (rol, contraseña, email) o eliminar un usuario, su principal sale de la caché
+ * ✔ @PostUpdate/@PostRemove corren en el flush, antes del commit: una solicitud concurrente puede
+ *   volver a cargar la fila anterior en ese intervalo, así que se invalida otra vez después del commit
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userPrincipalCache.evict(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userPrincipalCache.evict(user);
+                }
+            });
+        }
+    }
+}
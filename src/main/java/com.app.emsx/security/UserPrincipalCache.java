@@ -0,0 +1,71 @@
+package com.app.emsx.security;
+
+import com.app.emsx.entities.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * UserPrincipalCache
+ * -----------------------------------------------------
+ * ✔ Evita un findByEmail por cada request autenticado
+ * ✔ Caché acotada por tamaño y con TTL (security.user-cache.*)
+ * ✔ Guarda una copia inmutable del principal, no la entidad JPA
+ * ✔ UserCacheInvalidationListener la invalida cuando un User cambia o se elimina
+ */
+@Component
+public class UserPrincipalCache {
+
+    private record CachedPrincipal(Long userId, UserDetails details) { }
+
+    private final Cache<String, CachedPrincipal> principals;
+
+    public UserPrincipalCache(
+            @Value("${security.user-cache.max-size:10000}") long maxSize,
+            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * ✅ Principal desde caché; si no está, lo carga con el UserDetailsService
+     */
+    public UserDetails getOrLoad(String username, UserDetailsService loader) {
+        return principals.get(username, key -> snapshot(loader.loadUserByUsername(key))).details();
+    }
+
+    /**
+     * ✅ Descarta el principal del usuario (por email actual y por id, por si cambió el email)
+     */
+    public void evict(User user) {
+        if (user.getEmail() != null) {
+            principals.invalidate(user.getEmail());
+        }
+        if (user.getId() != null) {
+            principals.asMap().values().removeIf(cached -> Objects.equals(cached.userId(), user.getId()));
+        }
+    }
+
+    private static CachedPrincipal snapshot(UserDetails loaded) {
+        Long userId = loaded instanceof User user ? user.getId() : null;
+        UserDetails details = org.springframework.security.core.userdetails.User
+                .withUsername(loaded.getUsername())
+                .password(loaded.getPassword())
+                .authorities(loaded.getAuthorities())
+                .accountExpired(!loaded.isAccountNonExpired())
+                .accountLocked(!loaded.isAccountNonLocked())
+                .credentialsExpired(!loaded.isCredentialsNonExpired())
+                .disabled(!loaded.isEnabled())
+                .build();
+        return new CachedPrincipal(userId, details);
+    }
+}
@@ -7,9 +7,10 @@ import com.app.emsx.entities.User;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.repositories.UserRepository;
 import com.app.emsx.security.JwtService;
+import com.app.emsx.services.UniquenessGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +20,7 @@ import org.springframework.stereotype.Service;
  * ✔ Gestiona registro y autenticación de usuarios
  * ✔ Genera tokens JWT válidos con roles incluidos
  * ✔ Retorna la respuesta de autenticación al frontend
+ * ✔ Login con una sola lectura del usuario; el tiempo de BCrypt se mide en auth.hash.time
  */
 @Service
 @RequiredArgsConstructor
@@ -27,7 +29,8 @@ public class AuthServiceImpl {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
+    private final UniquenessGuard uniquenessGuard;
 
     /**
      * ✅ Registrar un nuevo usuario
@@ -48,8 +51,9 @@ public class AuthServiceImpl {
             }
         }
         
-        // Verificar si el email ya existe
-        if (userRepository.existsByEmail(request.getEmail())) {
+        // Verificar si el email ya existe (el filtro de unicidad evita la consulta si el email es nuevo)
+        if (uniquenessGuard.mightExist(UniquenessGuard.Key.USER_EMAIL, request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             throw new BusinessRuleException("El correo electrónico ya está registrado. Intenta con otro correo o inicia sesión.");
         }
         
@@ -68,10 +72,11 @@ public class AuthServiceImpl {
         );
 
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(hashTimer("register").record(() -> passwordEncoder.encode(request.getPassword())));
         user.setRole("ROLE_ADMIN"); // Por defecto es administrador
 
         userRepository.save(user);
+        uniquenessGuard.record(UniquenessGuard.Key.USER_EMAIL, user.getEmail());
         // NO generamos token aquí - el usuario debe hacer login después
     }
 
@@ -79,29 +84,16 @@ public class AuthServiceImpl {
      * ✅ Autenticar usuario existente
      */
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        // Verificar primero si el usuario existe ANTES de intentar autenticar
-        if (!userRepository.existsByEmail(request.getEmail())) {
-            throw new org.springframework.security.core.userdetails.UsernameNotFoundException("El usuario no existe en el sistema. Verifica tu correo electrónico o crea una cuenta.");
-        }
-        
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
-                    )
-            );
-        } catch (org.springframework.security.authentication.BadCredentialsException e) {
-            // Si llegamos aquí, el usuario existe pero la contraseña es incorrecta
-            throw new org.springframework.security.authentication.BadCredentialsException("Credenciales no válidas. Verifica tu contraseña.");
-        } catch (org.springframework.security.core.userdetails.UsernameNotFoundException e) {
-            // Usuario no encontrado (por si acaso)
-            throw new org.springframework.security.core.userdetails.UsernameNotFoundException("El usuario no existe en el sistema. Verifica tu correo electrónico o crea una cuenta.");
-        }
-
+        // Una sola lectura: si no existe, el usuario no está registrado
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new org.springframework.security.core.userdetails.UsernameNotFoundException("El usuario no existe en el sistema. Verifica tu correo electrónico o crea una cuenta."));
 
+        // Comparar la contraseña contra el hash ya cargado (sin volver a consultar la BD)
+        Boolean matches = hashTimer("login").record(() -> passwordEncoder.matches(request.getPassword(), user.getPassword()));
+        if (!Boolean.TRUE.equals(matches)) {
+            throw new org.springframework.security.authentication.BadCredentialsException("Credenciales no válidas. Verifica tu contraseña.");
+        }
+
         String jwtToken = jwtService.generateToken(user);
 
         return AuthenticationResponse.builder()
@@ -113,4 +105,11 @@ public class AuthServiceImpl {
                 .role(user.getRole())
                 .build();
     }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("auth.hash.time")
+                .description("Tiempo de BCrypt (encode en registro, matches en login)")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,632 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.book.BookSearchResponse;
+import com.app.emsx.events.LibraryEvent;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.repositories.BookRepository;
+import com.app.emsx.services.BookSearchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 🔎 BookSearchServiceImpl
+ * -----------------------------------------------------
+ * ✅ Índice invertido en memoria sobre título, género, editorial y nombre del autor
+ * ✅ Normaliza sin acentos ni mayúsculas ("Cortázar" = "cortazar") y descarta palabras vacías
+ * ✅ Cada término busca coincidencia exacta, por prefijo y, si no hay ninguna, aproximada (1-2 errores);
+ *   de los prefijos y aproximados se toman los MAX_EXPANSIONS términos con más libros
+ * ✅ Todos los términos deben coincidir; el puntaje pondera el campo (título > autor > género/editorial)
+ * ✅ Postings como arreglos primitivos ordenados por id (sin mapas ni boxing por consulta); se recorre el
+ *   término más selectivo en orden de id y se descartan los candidatos que, aun con la cota máxima de los
+ *   demás términos, no superan al peor del top (max-score); si ninguno puede, la búsqueda termina antes
+ * ✅ Se carga al iniciar por bloques y se actualiza con los LibraryEvent de libros y autores
+ *   y con los bloques de la importación masiva (index); rebuild() queda para recuperación
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookSearchServiceImpl implements BookSearchService {
+
+    private static final int TITLE = 1;
+    private static final int AUTHOR = 2;
+    private static final int GENRE = 4;
+    private static final int EDITORIAL = 8;
+
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double FUZZY_FACTOR = 0.4;
+    /** Máximo de términos del vocabulario que expande un prefijo o una búsqueda aproximada (los de más libros) */
+    private static final int MAX_EXPANSIONS = 50;
+    private static final int LOAD_CHUNK = 10_000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "e", "el", "en", "la", "las", "lo", "los",
+            "o", "para", "por", "u", "un", "una", "y");
+
+    private final BookRepository bookRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    /** Búsquedas en paralelo (lectura); altas, cambios y el reemplazo del índice en exclusiva (escritura) */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Index index = new Index();
+    /** Cambios recibidos durante una reconstrucción; se vuelven a aplicar sobre el índice nuevo */
+    private List<Consumer<Index>> pending;
+    private volatile boolean loaded;
+    private Timer searchTimer;
+
+    private record Doc(long id, String title, String genre, String editorial,
+                       Long authorId, String authorName, Map<String, Integer> tokens) { }
+
+    private record Hit(long bookId, double score) { }
+
+    private static final Comparator<Hit> WORST_FIRST = (a, b) -> a.score() != b.score()
+            ? Double.compare(a.score(), b.score())
+            : Long.compare(b.bookId(), a.bookId());
+
+    /**
+     * Libros de un término del vocabulario: ids ordenados y campos donde aparece (arreglos paralelos)
+     * ✔ maxWeight es una cota superior del peso de cualquier libro del posting (no baja al quitar libros)
+     */
+    private static final class Posting {
+        long[] ids = new long[4];
+        byte[] fields = new byte[4];
+        int size;
+        int maxWeight;
+
+        void put(long id, int docFields) {
+            // La carga inicial llega en orden de id: se agrega al final sin buscar
+            int i = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0) {
+                i = -(i + 1);
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    fields = Arrays.copyOf(fields, size * 2);
+                }
+                System.arraycopy(ids, i, ids, i + 1, size - i);
+                System.arraycopy(fields, i, fields, i + 1, size - i);
+                ids[i] = id;
+                size++;
+            }
+            fields[i] = (byte) docFields;
+            maxWeight = Math.max(maxWeight, fieldWeight(docFields));
+        }
+
+        void remove(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0) return;
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            System.arraycopy(fields, i + 1, fields, i, size - i - 1);
+            size--;
+        }
+
+        /** Peso del libro en este posting (0 = no aparece) */
+        int weight(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            return i >= 0 ? fieldWeight(fields[i]) : 0;
+        }
+    }
+
+    /**
+     * Coincidencias de un término: postings del vocabulario (exacto, prefijos o aproximados) con su factor
+     */
+    private record TermMatch(Posting[] postings, double[] factors, int estimatedSize) {
+
+        boolean isEmpty() {
+            return postings.length == 0;
+        }
+
+        /** Puntaje máximo que puede aportar el término a cualquier libro */
+        double upperBound() {
+            double bound = 0;
+            for (int i = 0; i < postings.length; i++) {
+                bound = Math.max(bound, postings[i].maxWeight * factors[i]);
+            }
+            return bound;
+        }
+
+        /** Mejor puntaje del libro para este término (0 = no coincide) */
+        double score(long bookId) {
+            double best = 0;
+            for (int i = 0; i < postings.length; i++) {
+                best = Math.max(best, postings[i].weight(bookId) * factors[i]);
+            }
+            return best;
+        }
+    }
+
+    /**
+     * ✅ Resultados ordenados por relevancia (empate: id); cada término coincide también por prefijo ("cort" → "cortazar")
+     */
+    @Override
+    public List<BookSearchResponse> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessRuleException("Debe indicar un texto de búsqueda (parámetro q)");
+        }
+        int size = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        ensureLoaded();
+
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            List<TermMatch> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                TermMatch match = index.match(term);
+                if (match.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(match);
+            }
+            // Se recorren solo los libros del término más selectivo; los demás se consultan por id
+            matches.sort(Comparator.comparingInt(TermMatch::estimatedSize));
+            PriorityQueue<Hit> top = topHits(matches, size);
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(WORST_FIRST.reversed());
+            return hits.stream().map(hit -> toResponse(index.docs.get(hit.bookId()), hit.score())).toList();
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Montículo de los mejores "size" (la cabeza es el peor retenido). Los libros del primer término se recorren
+     * en orden de id uniendo sus postings; como los ids crecen, un candidato que solo empata con el peor pierde
+     */
+    private static PriorityQueue<Hit> topHits(List<TermMatch> matches, int size) {
+        TermMatch driver = matches.get(0);
+        // rest[i] = cota de lo que pueden sumar los términos i.. (el primero no cuenta)
+        double[] rest = new double[matches.size() + 1];
+        for (int i = matches.size() - 1; i >= 1; i--) {
+            rest[i] = rest[i + 1] + matches.get(i).upperBound();
+        }
+
+        Posting[] postings = driver.postings();
+        double[] bounds = new double[postings.length];
+        int[] cursor = new int[postings.length];
+        int[] heap = new int[postings.length];
+        int heapSize = 0;
+        for (int p = 0; p < postings.length; p++) {
+            bounds[p] = postings[p].maxWeight * driver.factors()[p];
+            if (postings[p].size > 0) {
+                heap[heapSize++] = p;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, postings, cursor);
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(size + 1, WORST_FIRST);
+        double worst = -1;
+        candidates:
+        while (heapSize > 0) {
+            // Mismo libro en varios postings del término (prefijos): vale el mejor
+            long bookId = postings[heap[0]].ids[cursor[heap[0]]];
+            double score = 0;
+            while (heapSize > 0 && postings[heap[0]].ids[cursor[heap[0]]] == bookId) {
+                int p = heap[0];
+                score = Math.max(score, fieldWeight(postings[p].fields[cursor[p]]) * driver.factors()[p]);
+                if (++cursor[p] == postings[p].size) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, heapSize, 0, postings, cursor);
+            }
+
+            if (score + rest[1] <= worst) continue;
+            for (int i = 1; i < matches.size(); i++) {
+                double termScore = matches.get(i).score(bookId);
+                if (termScore == 0) continue candidates;
+                score += termScore;
+                if (score + rest[i + 1] <= worst) continue candidates;
+            }
+            top.add(new Hit(bookId, score));
+            if (top.size() > size) {
+                top.poll();
+            }
+            if (top.size() == size && top.peek().score() > worst) {
+                worst = top.peek().score();
+                // Postings que ya no pueden aportar un candidato: fuera de la unión (si no queda ninguno, fin)
+                int kept = 0;
+                for (int i = 0; i < heapSize; i++) {
+                    if (bounds[heap[i]] + rest[1] > worst) heap[kept++] = heap[i];
+                }
+                heapSize = kept;
+                for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                    siftDown(heap, heapSize, i, postings, cursor);
+                }
+            }
+        }
+        return top;
+    }
+
+    /** Montículo de postings por id actual (el menor en la cabeza) */
+    private static void siftDown(int[] heap, int heapSize, int i, Posting[] postings, int[] cursor) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && currentId(heap[left], postings, cursor) < currentId(heap[smallest], postings, cursor)) {
+                smallest = left;
+            }
+            if (right < heapSize && currentId(heap[right], postings, cursor) < currentId(heap[smallest], postings, cursor)) {
+                smallest = right;
+            }
+            if (smallest == i) return;
+            int swap = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = swap;
+            i = smallest;
+        }
+    }
+
+    private static long currentId(int p, Posting[] postings, int[] cursor) {
+        return postings[p].ids[cursor[p]];
+    }
+
+    /**
+     * ✅ Agrega o actualiza libros ya confirmados con una sola consulta, sin reconstruir el índice
+     */
+    @Override
+    public void index(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) return;
+        List<Doc> docs = bookRepository.findSearchRowsByIds(bookIds).stream()
+                .map(BookSearchServiceImpl::toDoc)
+                .toList();
+        apply(idx -> docs.forEach(idx::put));
+    }
+
+    /**
+     * ✅ Reconstruye el índice desde la BD por bloques (keyset por id) y lo reemplaza de una vez
+     */
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index fresh = new Index();
+            long lastId = 0;
+            while (true) {
+                List<Object[]> rows = bookRepository.findSearchRows(lastId, Limit.of(LOAD_CHUNK));
+                for (Object[] row : rows) {
+                    fresh.put(toDoc(row));
+                }
+                if (rows.size() < LOAD_CHUNK) break;
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+            }
+
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(fresh));
+                pending = null;
+                index = fresh;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Índice de búsqueda cargado: {} libros, {} términos en {} ms",
+                    fresh.docs.size(), fresh.postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        searchTimer = Timer.builder("books.search")
+                .description("Tiempo de búsqueda en el índice en memoria (sin HTTP ni serialización)")
+                .register(meterRegistry);
+        Gauge.builder("books.search.index.size", this, service -> service.loaded ? service.indexedBooks() : 0)
+                .description("Libros en el índice de búsqueda")
+                .register(meterRegistry);
+    }
+
+    private int indexedBooks() {
+        lock.readLock().lock();
+        try {
+            return index.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        rebuildLock.lock();
+        try {
+            // Otra solicitud pudo haberlo cargado mientras se esperaba el lock
+            if (!loaded) {
+                rebuild();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * ✅ Aplica el alta, cambio o baja confirmada (AFTER_COMMIT) sin reconstruir el índice
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryEvent(LibraryEvent event) {
+        Consumer<Index> change = switch (event.getEntity()) {
+            case BOOK -> {
+                Long id = event.getId();
+                if (event.getAction() == LibraryEvent.Action.DELETED) {
+                    yield idx -> idx.remove(id);
+                }
+                // Una sola fila con los campos indexados (incluye el nombre del autor)
+                List<Object[]> rows = bookRepository.findSearchRow(id);
+                if (rows.isEmpty()) {
+                    yield idx -> idx.remove(id);
+                }
+                Doc doc = toDoc(rows.get(0));
+                yield idx -> idx.put(doc);
+            }
+            case AUTHOR -> event.getAction() == LibraryEvent.Action.UPDATED
+                    ? idx -> idx.renameAuthor(event.getId(), event.getLabel())
+                    : null;
+            default -> null;
+        };
+        if (change != null) {
+            apply(change);
+        }
+    }
+
+    /** Aplica el cambio al índice actual y, si hay una reconstrucción en curso, también al nuevo */
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ Minúsculas, sin acentos (NFD + quitar marcas) y sin palabras vacías
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Doc toDoc(Object[] row) {
+        Long authorId = (Long) row[4];
+        String authorName = authorId != null ? row[5] + " " + row[6] : null;
+        return doc((Long) row[0], (String) row[1], (String) row[2], (String) row[3], authorId, authorName);
+    }
+
+    private static Doc doc(long id, String title, String genre, String editorial, Long authorId, String authorName) {
+        Map<String, Integer> tokens = new HashMap<>();
+        addTokens(tokens, title, TITLE);
+        addTokens(tokens, authorName, AUTHOR);
+        addTokens(tokens, genre, GENRE);
+        addTokens(tokens, editorial, EDITORIAL);
+        return new Doc(id, title, genre, editorial, authorId, authorName, tokens);
+    }
+
+    private static void addTokens(Map<String, Integer> tokens, String text, int field) {
+        for (String token : tokenize(text)) {
+            tokens.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    /** Título 3, autor 2, género y editorial 1 (se suman si el término aparece en varios campos) */
+    private static int fieldWeight(int fields) {
+        int weight = 0;
+        if ((fields & TITLE) != 0) weight += 3;
+        if ((fields & AUTHOR) != 0) weight += 2;
+        if ((fields & GENRE) != 0) weight += 1;
+        if ((fields & EDITORIAL) != 0) weight += 1;
+        return weight;
+    }
+
+    private static BookSearchResponse toResponse(Doc doc, double score) {
+        return BookSearchResponse.builder()
+                .id(doc.id())
+                .title(doc.title())
+                .genre(doc.genre())
+                .editorial(doc.editorial())
+                .authorId(doc.authorId())
+                .authorName(doc.authorName())
+                .score(Math.round(score * 100) / 100.0)
+                .build();
+    }
+
+    /**
+     * Distancia de edición (inserción, borrado, sustitución y transposición) con corte temprano:
+     * devuelve max + 1 apenas se sabe que la distancia supera max
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) return max + 1;
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+
+    /**
+     * Estructuras del índice; no es thread-safe, se accede siempre bajo el lock del servicio
+     */
+    private static final class Index {
+        final Map<Long, Doc> docs = new HashMap<>();
+        /** término → libros donde aparece; ordenado para buscar por prefijo */
+        final NavigableMap<String, Posting> postings = new TreeMap<>();
+        final Map<Long, Set<Long>> booksByAuthor = new HashMap<>();
+
+        void put(Doc doc) {
+            remove(doc.id());
+            docs.put(doc.id(), doc);
+            doc.tokens().forEach((token, fields) ->
+                    postings.computeIfAbsent(token, k -> new Posting()).put(doc.id(), fields));
+            if (doc.authorId() != null) {
+                booksByAuthor.computeIfAbsent(doc.authorId(), k -> new HashSet<>()).add(doc.id());
+            }
+        }
+
+        void remove(long id) {
+            Doc old = docs.remove(id);
+            if (old == null) return;
+            for (String token : old.tokens().keySet()) {
+                Posting posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.size == 0) postings.remove(token);
+                }
+            }
+            if (old.authorId() != null) {
+                Set<Long> books = booksByAuthor.get(old.authorId());
+                if (books != null) {
+                    books.remove(id);
+                    if (books.isEmpty()) booksByAuthor.remove(old.authorId());
+                }
+            }
+        }
+
+        void renameAuthor(Long authorId, String authorName) {
+            Set<Long> books = booksByAuthor.get(authorId);
+            if (books == null) return;
+            for (Long bookId : List.copyOf(books)) {
+                Doc old = docs.get(bookId);
+                put(doc(old.id(), old.title(), old.genre(), old.editorial(), authorId, authorName));
+            }
+        }
+
+        /**
+         * Postings que coinciden con un término: exacto (1.0), prefijo (0.6) o, si no hubo ninguno, aproximado (0.4).
+         * Si hay más de MAX_EXPANSIONS prefijos o aproximados se toman los de más libros, no los primeros en orden
+         * alfabético ("cort" debe llegar a "cortazar" aunque haya otros 50 términos que empiecen por "cort")
+         */
+        TermMatch match(String term) {
+            List<Posting> found = new ArrayList<>();
+            List<Double> factors = new ArrayList<>();
+
+            Posting exact = postings.get(term);
+            if (exact != null) {
+                found.add(exact);
+                factors.add(1.0);
+            }
+
+            if (term.length() >= 2) {
+                for (Posting posting : mostFrequent(
+                        postings.subMap(term, false, term + Character.MAX_VALUE, false).values())) {
+                    found.add(posting);
+                    factors.add(PREFIX_FACTOR);
+                }
+            }
+
+            if (found.isEmpty() && term.length() >= 4) {
+                // Se asume correcta la primera letra: solo se recorre esa parte del vocabulario
+                int maxEdits = term.length() >= 8 ? 2 : 1;
+                String first = term.substring(0, 1);
+                List<Posting> similar = new ArrayList<>();
+                for (Map.Entry<String, Posting> entry
+                        : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                    if (distance(term, entry.getKey(), maxEdits) <= maxEdits) {
+                        similar.add(entry.getValue());
+                    }
+                }
+                for (Posting posting : mostFrequent(similar)) {
+                    found.add(posting);
+                    factors.add(FUZZY_FACTOR);
+                }
+            }
+
+            int estimatedSize = 0;
+            double[] factorArray = new double[found.size()];
+            for (int i = 0; i < found.size(); i++) {
+                estimatedSize += found.get(i).size;
+                factorArray[i] = factors.get(i);
+            }
+            return new TermMatch(found.toArray(Posting[]::new), factorArray, estimatedSize);
+        }
+
+        /** Los MAX_EXPANSIONS postings con más libros */
+        private static List<Posting> mostFrequent(Collection<Posting> candidates) {
+            if (candidates.size() <= MAX_EXPANSIONS) {
+                return List.copyOf(candidates);
+            }
+            PriorityQueue<Posting> largest = new PriorityQueue<>(MAX_EXPANSIONS + 1,
+                    Comparator.comparingInt(posting -> posting.size));
+            for (Posting posting : candidates) {
+                largest.add(posting);
+                if (largest.size() > MAX_EXPANSIONS) {
+                    largest.poll();
+                }
+            }
+            return List.copyOf(largest);
+        }
+    }
+}
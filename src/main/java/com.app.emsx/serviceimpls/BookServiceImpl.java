@@ -1,20 +1,30 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.common.KeysetCursors;
 import com.app.emsx.dtos.book.BookRequest;
 import com.app.emsx.dtos.book.BookResponse;
 import com.app.emsx.entities.Author;
 import com.app.emsx.entities.Book;
+import com.app.emsx.events.LibraryEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.BookMapper;
 import com.app.emsx.repositories.AuthorRepository;
 import com.app.emsx.repositories.BookRepository;
+import com.app.emsx.repositories.LoanRepository;
 import com.app.emsx.services.BookService;
+import com.app.emsx.validation.LibraryRules;
+import com.app.emsx.validation.ValidationRules;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 
 /**
@@ -27,37 +37,26 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
 
+    /** Claves de orden permitidas en el listado paginado (NOT NULL y con índice (clave, id), ver V5) */
+    private static final Set<String> SORT_KEYS = Set.of("id", "title");
+
+    /** Reglas de campo de create y update (todas las violaciones en un solo 409; visible para ValidationBenchmark) */
+    static final ValidationRules<BookRequest> RULES = ValidationRules.<BookRequest>builder()
+            .field(BookRequest::getTitle, LibraryRules.TITLE)
+            .field(BookRequest::getGenre, LibraryRules.GENRE)
+            .field(BookRequest::getEditorial, LibraryRules.EDITORIAL)
+            .field(BookRequest::getPublicationDate, LibraryRules.PUBLICATION_DATE)
+            .build();
+
     private final BookRepository repository;
     private final AuthorRepository authorRepository;
+    private final LoanRepository loanRepository;
     private final BookMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BookResponse create(BookRequest request) {
-        // Validar longitud y formato de campos
-        if (request.getTitle() != null) {
-            if (request.getTitle().length() > 20) {
-                throw new BusinessRuleException("El título no puede tener más de 20 caracteres");
-            }
-            if (!request.getTitle().matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s]+$")) {
-                throw new BusinessRuleException("El título solo debe contener letras, no números ni símbolos");
-            }
-        }
-        if (request.getGenre() != null) {
-            if (request.getGenre().length() > 20) {
-                throw new BusinessRuleException("El género no puede tener más de 20 caracteres");
-            }
-            if (!request.getGenre().matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s]+$")) {
-                throw new BusinessRuleException("El género solo debe contener letras, no números ni símbolos");
-            }
-        }
-        if (request.getEditorial() != null) {
-            if (request.getEditorial().length() > 20) {
-                throw new BusinessRuleException("La editorial no puede tener más de 20 caracteres");
-            }
-            if (!request.getEditorial().matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s]+$")) {
-                throw new BusinessRuleException("La editorial solo debe contener letras, no números ni símbolos");
-            }
-        }
+        RULES.check(request);
 
         // Verificar existencia del autor
         Author author = authorRepository.findById(request.getAuthorId())
@@ -68,38 +67,17 @@ public class BookServiceImpl implements BookService {
             throw new BusinessRuleException("Ya existe un libro con el título \"" + request.getTitle().trim() + "\" del mismo autor");
         }
 
-        // Validar fecha de publicación
-        if (request.getPublicationDate() != null && !request.getPublicationDate().trim().isEmpty()) {
-            try {
-                LocalDate publicationDate = LocalDate.parse(request.getPublicationDate().trim());
-                LocalDate firstBookDate = LocalDate.of(868, 1, 1); // Primer libro impreso conocido
-                LocalDate today = LocalDate.now();
-                
-                if (publicationDate.isBefore(firstBookDate)) {
-                    throw new BusinessRuleException("La fecha de publicación no puede ser anterior al año 868 (primer libro impreso conocido)");
-                }
-                if (publicationDate.isAfter(today)) {
-                    throw new BusinessRuleException("La fecha de publicación no puede ser futura");
-                }
-                
-                // Validar que la fecha de publicación no sea anterior a la fecha de nacimiento del autor
-                if (author.getBirthDate() != null && publicationDate.isBefore(author.getBirthDate())) {
-                    throw new BusinessRuleException("La fecha de publicación no puede ser anterior a la fecha de nacimiento del autor");
-                }
-            } catch (Exception e) {
-                if (e instanceof BusinessRuleException) {
-                    throw e;
-                }
-                throw new BusinessRuleException("Formato de fecha inválido: " + request.getPublicationDate());
-            }
-        }
+        // Validar que la fecha de publicación no sea anterior a la fecha de nacimiento del autor
+        validatePublishedAfterBirth(request, author);
 
         // Mapear DTO → Entity
         Book book = mapper.toEntity(request);
         book.setAuthor(author);
 
         // Guardar y retornar
-        return mapper.toResponse(repository.save(book));
+        Book saved = repository.save(book);
+        eventPublisher.publishEvent(LibraryEvent.book(LibraryEvent.Action.CREATED, saved.getId(), author.getId()));
+        return mapper.toResponse(saved);
     }
 
     @Override
@@ -107,31 +85,7 @@ public class BookServiceImpl implements BookService {
         Book book = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + id));
 
-        // Validar longitud y formato de campos
-        if (request.getTitle() != null) {
-            if (request.getTitle().length() > 20) {
-                throw new BusinessRuleException("El título no puede tener más de 20 caracteres");
-            }
-            if (!request.getTitle().matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s]+$")) {
-                throw new BusinessRuleException("El título solo debe contener letras, no números ni símbolos");
-            }
-        }
-        if (request.getGenre() != null) {
-            if (request.getGenre().length() > 20) {
-                throw new BusinessRuleException("El género no puede tener más de 20 caracteres");
-            }
-            if (!request.getGenre().matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s]+$")) {
-                throw new BusinessRuleException("El género solo debe contener letras, no números ni símbolos");
-            }
-        }
-        if (request.getEditorial() != null) {
-            if (request.getEditorial().length() > 20) {
-                throw new BusinessRuleException("La editorial no puede tener más de 20 caracteres");
-            }
-            if (!request.getEditorial().matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s]+$")) {
-                throw new BusinessRuleException("La editorial solo debe contener letras, no números ni símbolos");
-            }
-        }
+        RULES.check(request);
 
         // Validar que no se intente modificar el autor (es inmutable)
         if (request.getAuthorId() != null && book.getAuthor() != null && !request.getAuthorId().equals(book.getAuthor().getId())) {
@@ -149,36 +103,15 @@ public class BookServiceImpl implements BookService {
             }
         }
 
-        // Validar fecha de publicación
-        if (request.getPublicationDate() != null && !request.getPublicationDate().trim().isEmpty()) {
-            try {
-                LocalDate publicationDate = LocalDate.parse(request.getPublicationDate().trim());
-                LocalDate firstBookDate = LocalDate.of(868, 1, 1); // Primer libro impreso conocido
-                LocalDate today = LocalDate.now();
-                
-                if (publicationDate.isBefore(firstBookDate)) {
-                    throw new BusinessRuleException("La fecha de publicación no puede ser anterior al año 868 (primer libro impreso conocido)");
-                }
-                if (publicationDate.isAfter(today)) {
-                    throw new BusinessRuleException("La fecha de publicación no puede ser futura");
-                }
-                
-                // Validar que la fecha de publicación no sea anterior a la fecha de nacimiento del autor
-                if (author != null && author.getBirthDate() != null && publicationDate.isBefore(author.getBirthDate())) {
-                    throw new BusinessRuleException("La fecha de publicación no puede ser anterior a la fecha de nacimiento del autor");
-                }
-            } catch (Exception e) {
-                if (e instanceof BusinessRuleException) {
-                    throw e;
-                }
-                throw new BusinessRuleException("Formato de fecha inválido: " + request.getPublicationDate());
-            }
-        }
+        // Validar que la fecha de publicación no sea anterior a la fecha de nacimiento del autor
+        validatePublishedAfterBirth(request, author);
 
         mapper.updateEntityFromRequest(request, book);
         // El autor no se actualiza (es inmutable)
 
-        return mapper.toResponse(repository.save(book));
+        Book saved = repository.save(book);
+        eventPublisher.publishEvent(LibraryEvent.book(LibraryEvent.Action.UPDATED, saved.getId(), saved.getAuthor() != null ? saved.getAuthor().getId() : null));
+        return mapper.toResponse(saved);
     }
 
     @Override
@@ -189,6 +122,13 @@ public class BookServiceImpl implements BookService {
                 .toList();
     }
 
+    @Override
+    public CursorPage<BookResponse> findPage(String cursor, Integer size, String sort, String direction) {
+        Sort order = KeysetCursors.sort(sort, direction, SORT_KEYS);
+        Window<Book> window = repository.findBy(KeysetCursors.position(cursor, order), order, KeysetCursors.limit(size));
+        return KeysetCursors.page(window, order, mapper::toResponse);
+    }
+
     @Override
     public BookResponse findById(Long id) {
         Book book = repository.findById(id)
@@ -201,23 +141,26 @@ public class BookServiceImpl implements BookService {
         Book book = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + id));
 
-        // Forzar carga de préstamos (lazy loading)
-        if (book.getLoans() != null) {
-            int loanCount = book.getLoans().size(); // Esto fuerza la carga de la colección
-            if (loanCount > 0) {
-                // Verificar si hay préstamos activos
-                boolean hasActiveLoans = book.getLoans().stream()
-                        .anyMatch(loan -> loan.getState() != null && 
-                                (loan.getState().equalsIgnoreCase("ACTIVE") || 
-                                 loan.getState().equalsIgnoreCase("OVERDUE")));
-                
-                if (hasActiveLoans) {
-                    throw new BusinessRuleException("Este libro se encuentra en un préstamo activo. Debe ser devuelto primero.");
-                }
-            }
+        // Verificar préstamos activos con una consulta EXISTS (sin cargar la colección de préstamos)
+        if (loanRepository.existsActiveByBook(id, LoanRepository.ACTIVE_STATES)) {
+            throw new BusinessRuleException("Este libro se encuentra en un préstamo activo. Debe ser devuelto primero.");
         }
 
         repository.delete(book);
+        eventPublisher.publishEvent(LibraryEvent.book(LibraryEvent.Action.DELETED, id, null));
     }
-}
 
+    /**
+     * Formato y rango ya los validó RULES; aquí solo la regla que depende del autor
+     */
+    private static void validatePublishedAfterBirth(BookRequest request, Author author) {
+        if (author == null || author.getBirthDate() == null
+                || request.getPublicationDate() == null || request.getPublicationDate().isBlank()) {
+            return;
+        }
+        LocalDate publicationDate = LocalDate.parse(request.getPublicationDate().trim());
+        if (publicationDate.isBefore(author.getBirthDate())) {
+            throw new BusinessRuleException("La fecha de publicación no puede ser anterior a la fecha de nacimiento del autor");
+        }
+    }
+}
@@ -0,0 +1,658 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.common.ExportFormat;
+import com.app.emsx.dtos.catalog.CatalogImportError;
+import com.app.emsx.dtos.catalog.CatalogImportJobResponse;
+import com.app.emsx.dtos.catalog.CatalogImportRow;
+import com.app.emsx.entities.Author;
+import com.app.emsx.entities.Book;
+import com.app.emsx.entities.Inventory;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.exceptions.ResourceNotFoundException;
+import com.app.emsx.exceptions.ServiceOverloadedException;
+import com.app.emsx.repositories.AuthorRepository;
+import com.app.emsx.repositories.BookRepository;
+import com.app.emsx.services.BookSearchService;
+import com.app.emsx.services.CatalogImportService;
+import com.app.emsx.services.DashboardService;
+import com.app.emsx.services.UniquenessGuard;
+import com.app.emsx.validation.LibraryRules;
+import com.app.emsx.validation.ValidationRules;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.app.emsx.validation.FieldRules.*;
+
+/**
+ * 📥 CatalogImportServiceImpl
+ * -----------------------------------------------------
+ * ✅ Importación masiva de libros, autores e inventarios desde CSV o NDJSON (POST /api/imports/catalog)
+ * ✅ El archivo se lee en streaming y se procesa por bloques de catalog-import.chunk-size filas
+ * ✅ Por bloque: validación de campos en paralelo, autores y títulos duplicados resueltos con una
+ *    consulta IN (...) cada uno, e inserción con saveAll (lotes JDBC gracias a id_sequences)
+ * ✅ Cada bloque es su propia transacción: un error de BD marca solo las filas de ese bloque
+ * ✅ El trabajo corre en un hilo propio; el progreso y los errores por fila se consultan por id
+ * ✅ Cada bloque confirmado entra al índice de búsqueda con una consulta (no un evento por libro);
+ *    si eso falla el bloque sigue contando como creado y el índice se reconstruye al terminar
+ * ✅ Al terminar se reconcilia el dashboard una sola vez
+ */
+@Slf4j
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    /** Mismas reglas de campo que libros, autores e inventario; los textos se validan sin espacios alrededor */
+    private static final ValidationRules<CatalogImportRow> ROW_RULES = ValidationRules.<CatalogImportRow>builder()
+            .field(row -> trim(row.getTitle()), required("El título es obligatorio"), LibraryRules.TITLE)
+            .field(row -> trim(row.getGenre()), required("El género es obligatorio"), LibraryRules.GENRE)
+            .field(row -> trim(row.getEditorial()), required("La editorial es obligatoria"), LibraryRules.EDITORIAL)
+            .field(CatalogImportRow::getPublicationDate,
+                    required("La fecha de publicación es obligatoria"), LibraryRules.PUBLICATION_DATE)
+            .field(row -> trim(row.getAuthorEmail()), required("El email del autor es obligatorio"), LibraryRules.EMAIL)
+            // Datos del autor nuevo: se validan si vienen; su obligatoriedad se decide al resolver el email
+            .optionalField(row -> trim(row.getAuthorFirstName()),
+                    lengthBetween(2, 25, "El nombre debe tener entre 2 y 25 letras"),
+                    letters("El nombre solo debe contener letras, no números"))
+            .optionalField(row -> trim(row.getAuthorLastName()),
+                    LibraryRules.LAST_NAME, letters("El apellido solo debe contener letras, no números"))
+            .optionalField(CatalogImportRow::getAuthorBirthDate, LibraryRules.BIRTH_DATE)
+            .field(CatalogImportRow::getTotalCopies,
+                    atLeast(0, "El total de copias no puede ser negativo"),
+                    atMost(999, "El total de copias no puede tener más de 3 dígitos (máximo 999)"))
+            .build();
+
+    private enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardService dashboardService;
+    private final BookSearchService searchService;
+    private final UniquenessGuard uniquenessGuard;
+    private final ObjectReader rowReader;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int maxJobs;
+    private final long retryAfterSeconds;
+
+    private final ThreadPoolExecutor executor;
+    /** Trabajos en orden de llegada; se conservan los últimos catalog-import.max-jobs terminados */
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedOrder = new ConcurrentLinkedDeque<>();
+    private final Counter createdRowsCounter;
+    private final Counter failedRowsCounter;
+
+    public CatalogImportServiceImpl(
+            AuthorRepository authorRepository,
+            BookRepository bookRepository,
+            TransactionTemplate transactionTemplate,
+            DashboardService dashboardService,
+            BookSearchService searchService,
+            UniquenessGuard uniquenessGuard,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${catalog-import.chunk-size:1000}") int chunkSize,
+            @Value("${catalog-import.max-errors:1000}") int maxErrors,
+            @Value("${catalog-import.max-jobs:50}") int maxJobs,
+            @Value("${catalog-import.queue-capacity:5}") int queueCapacity,
+            @Value("${catalog-import.retry-after-seconds:30}") long retryAfterSeconds
+    ) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dashboardService = dashboardService;
+        this.searchService = searchService;
+        this.uniquenessGuard = uniquenessGuard;
+        this.rowReader = objectMapper.readerFor(CatalogImportRow.class);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxJobs = maxJobs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // Un trabajo a la vez: dos archivos con el mismo autor nuevo no compiten por crearlo
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-import-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.createdRowsCounter = Counter.builder("catalog.import.rows")
+                .description("Filas procesadas por la importación masiva")
+                .tag("result", "created")
+                .register(meterRegistry);
+        this.failedRowsCounter = Counter.builder("catalog.import.rows")
+                .description("Filas procesadas por la importación masiva")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("catalog.import.queue.depth", executor, e -> e.getQueue().size())
+                .description("Importaciones esperando turno")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ✅ Guarda el archivo en disco y encola el trabajo; responde de inmediato con su id
+     */
+    @Override
+    public CatalogImportJobResponse submit(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessRuleException("Debe adjuntar un archivo CSV o NDJSON (parámetro file)");
+        }
+        ExportFormat importFormat = format != null && !format.isBlank()
+                ? ExportFormat.from(format)
+                : formatFromFileName(file.getOriginalFilename());
+
+        Path path;
+        try {
+            path = Files.createTempFile("catalog-import-", "." + importFormat.getExtension());
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new BusinessRuleException("No se pudo recibir el archivo: " + e.getMessage(), e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), importFormat);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, path));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(path);
+            throw new ServiceOverloadedException(
+                    "Hay demasiadas importaciones en cola. Intenta nuevamente más tarde.", retryAfterSeconds);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public CatalogImportJobResponse findJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Importación no encontrada con ID: " + id);
+        }
+        return job.toResponse();
+    }
+
+    private static ExportFormat formatFromFileName(String fileName) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) return ExportFormat.CSV;
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return ExportFormat.NDJSON;
+        throw new BusinessRuleException("No se reconoce el formato de '" + fileName + "': use .csv, .ndjson o el parámetro format");
+    }
+
+    // =====================================================
+    // Ejecución
+    // =====================================================
+
+    private void run(ImportJob job, Path path) {
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            RowSource source = job.format == ExportFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            ParsedRow row;
+            while ((row = source.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(job, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk);
+            }
+            job.finish(State.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Importación {} interrumpida en la fila {}", job.id, job.rowsRead.get(), e);
+            job.finish(State.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(path);
+            finishedOrder.add(job.id);
+            while (finishedOrder.size() > maxJobs) {
+                jobs.remove(finishedOrder.poll());
+            }
+        }
+
+        if (job.searchIndexStale) {
+            try {
+                searchService.rebuild();
+            } catch (RuntimeException e) {
+                log.error("Importación {}: no se pudo reconstruir el índice de búsqueda", job.id, e);
+            }
+        }
+        if (job.booksCreated.get() > 0 || job.authorsCreated.get() > 0) {
+            dashboardService.reconcile();
+        }
+        log.info("Importación {} ({}): {} filas, {} libros, {} autores, {} inventarios, {} con error",
+                job.id, job.state, job.rowsRead.get(), job.booksCreated.get(), job.authorsCreated.get(),
+                job.inventoriesCreated.get(), job.rowsFailed.get());
+    }
+
+    /**
+     * 1️⃣ campos en paralelo → 2️⃣ autores y duplicados por conjunto → 3️⃣ reglas por fila → 4️⃣ inserción en lote
+     */
+    private void processChunk(ImportJob job, List<ParsedRow> chunk) {
+        job.rowsRead.addAndGet(chunk.size());
+
+        // 1️⃣ Validaciones de campos (sin base de datos), en paralelo
+        String[] errors = new String[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> errors[i] = validateFields(chunk.get(i)));
+
+        // 2️⃣ Cargas por conjunto: autores por email y pares (título, autor) ya registrados
+        //    (los emails que el filtro de unicidad descarta son autores nuevos: no se consultan)
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] == null) {
+                String email = chunk.get(i).row().getAuthorEmail().trim();
+                if (emails.contains(email) || !uniquenessGuard.mightExist(UniquenessGuard.Key.AUTHOR_EMAIL, email)) continue;
+                emails.add(email);
+                emails.add(email.toLowerCase(Locale.ROOT));
+            }
+        }
+        Map<String, Long> authorIds = new HashMap<>();
+        Map<Long, LocalDate> birthDates = new HashMap<>();
+        if (!emails.isEmpty()) {
+            for (Object[] author : authorRepository.findIdentitiesByEmailIn(emails)) {
+                authorIds.put(((String) author[1]).toLowerCase(Locale.ROOT), (Long) author[0]);
+                birthDates.put((Long) author[0], (LocalDate) author[2]);
+            }
+        }
+        Set<String> existingTitles = new HashSet<>();
+        if (!authorIds.isEmpty()) {
+            Set<String> titles = new HashSet<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (errors[i] == null) titles.add(chunk.get(i).row().getTitle().trim());
+            }
+            for (Object[] pair : bookRepository.findTitleAuthorPairs(authorIds.values(), titles)) {
+                existingTitles.add(titleKey("id:" + pair[1], (String) pair[0]));
+            }
+        }
+
+        // 3️⃣ Reglas por fila, en memoria (en orden: la primera fila de un autor nuevo lo define)
+        Map<String, Author> newAuthors = new HashMap<>();
+        Map<String, Author> authorsToSave = new LinkedHashMap<>();
+        List<Book> books = new ArrayList<>();
+        List<Integer> bookRows = new ArrayList<>();
+        List<Long> bookAuthorIds = new ArrayList<>();
+        int inventories = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] != null) continue;
+            CatalogImportRow row = chunk.get(i).row();
+            String email = row.getAuthorEmail().trim().toLowerCase(Locale.ROOT);
+            Long authorId = authorIds.get(email);
+            Author newAuthor = authorId == null ? newAuthors.get(email) : null;
+            if (authorId == null && newAuthor == null) {
+                if (isBlank(row.getAuthorFirstName()) || isBlank(row.getAuthorLastName()) || isBlank(row.getAuthorBirthDate())) {
+                    errors[i] = "No existe un autor con email " + row.getAuthorEmail().trim()
+                            + "; incluya authorFirstName, authorLastName y authorBirthDate para crearlo";
+                    continue;
+                }
+                newAuthor = new Author();
+                newAuthor.setFirstName(row.getAuthorFirstName().trim());
+                newAuthor.setLastName(row.getAuthorLastName().trim());
+                newAuthor.setEmail(row.getAuthorEmail().trim());
+                newAuthor.setBirthDate(LocalDate.parse(row.getAuthorBirthDate().trim()));
+                newAuthors.put(email, newAuthor);
+            }
+
+            String title = row.getTitle().trim();
+            LocalDate publicationDate = LocalDate.parse(row.getPublicationDate().trim());
+            LocalDate birthDate = authorId != null ? birthDates.get(authorId) : newAuthor.getBirthDate();
+            if (birthDate != null && publicationDate.isBefore(birthDate)) {
+                errors[i] = "La fecha de publicación no puede ser anterior a la fecha de nacimiento del autor";
+                continue;
+            }
+            // Duplicados contra la BD y dentro del mismo archivo (la clave se agrega al aceptar la fila)
+            if (!existingTitles.add(titleKey(authorId != null ? "id:" + authorId : "new:" + email, title))) {
+                errors[i] = "Ya existe un libro con el título \"" + title + "\" del mismo autor";
+                continue;
+            }
+
+            Book book = new Book();
+            book.setTitle(title);
+            book.setGenre(row.getGenre().trim());
+            book.setEditorial(row.getEditorial().trim());
+            book.setPublicationDate(publicationDate);
+            book.setAuthor(newAuthor);
+            if (row.getTotalCopies() != null) {
+                Inventory inventory = new Inventory();
+                inventory.setTotalCopies(row.getTotalCopies());
+                inventory.setAvailableCopies(row.getTotalCopies());
+                inventory.setBorrowedCopies(0);
+                inventory.setLastUpdated(LocalDateTime.now());
+                inventory.setBook(book);
+                book.setInventory(inventory);
+                inventories++;
+            }
+            if (newAuthor != null) {
+                authorsToSave.putIfAbsent(email, newAuthor);
+            }
+            books.add(book);
+            bookRows.add(i);
+            bookAuthorIds.add(authorId);
+        }
+
+        // 4️⃣ Inserción en una transacción por bloque (el inventario se guarda en cascada con su libro)
+        boolean saved = false;
+        if (!books.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    authorRepository.saveAll(authorsToSave.values());
+                    for (int k = 0; k < books.size(); k++) {
+                        if (bookAuthorIds.get(k) != null) {
+                            books.get(k).setAuthor(authorRepository.getReferenceById(bookAuthorIds.get(k)));
+                        }
+                    }
+                    bookRepository.saveAll(books);
+                });
+                saved = true;
+            } catch (RuntimeException e) {
+                log.warn("Importación {}: bloque de {} filas rechazado por la BD: {}", job.id, books.size(), e.getMessage());
+                for (int i : bookRows) {
+                    errors[i] = "No se pudo guardar el bloque: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                }
+            }
+        }
+
+        // 5️⃣ Bloque confirmado: ya cuenta como creado aunque falle la actualización del índice de búsqueda
+        if (saved) {
+            authorsToSave.values().forEach(author ->
+                    uniquenessGuard.record(UniquenessGuard.Key.AUTHOR_EMAIL, author.getEmail()));
+            job.booksCreated.addAndGet(books.size());
+            job.authorsCreated.addAndGet(authorsToSave.size());
+            job.inventoriesCreated.addAndGet(inventories);
+            createdRowsCounter.increment(books.size());
+            try {
+                searchService.index(books.stream().map(Book::getId).toList());
+            } catch (RuntimeException e) {
+                log.warn("Importación {}: no se pudo indexar un bloque de {} libros; se reconstruirá el índice al terminar: {}",
+                        job.id, books.size(), e.getMessage());
+                job.searchIndexStale = true;
+            }
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] != null) {
+                job.addError(chunk.get(i).number(), errors[i]);
+                failedRowsCounter.increment();
+            }
+        }
+    }
+
+    private static String titleKey(String authorKey, String title) {
+        // Las colaciones de MySQL comparan títulos sin distinguir mayúsculas
+        return authorKey + "|" + title.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * ✅ Reglas de campo de libro, autor e inventario; todas las violaciones de la fila o null
+     */
+    private static String validateFields(ParsedRow parsed) {
+        if (parsed.error() != null) return parsed.error();
+        List<String> violations = ROW_RULES.validate(parsed.row());
+        return violations.isEmpty() ? null : String.join("; ", violations);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // =====================================================
+    // Lectura del archivo (streaming, una fila a la vez)
+    // =====================================================
+
+    /** Fila leída: número de fila de datos, contenido o error de formato */
+    private record ParsedRow(long number, CatalogImportRow row, String error) { }
+
+    private interface RowSource {
+        /** Siguiente fila o null al final del archivo */
+        ParsedRow next() throws IOException;
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long number;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                number++;
+                try {
+                    return new ParsedRow(number, rowReader.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(number, null, "JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CSV con encabezado (RFC 4180: comillas dobles, "" escapada, saltos de línea dentro de comillas).
+     * Las columnas se asocian por nombre, sin distinguir mayúsculas; las desconocidas se ignoran.
+     */
+    private static final class CsvRowSource implements RowSource {
+        private static final List<String> COLUMNS = List.of(
+                "title", "genre", "editorial", "publicationdate", "authoremail",
+                "authorfirstname", "authorlastname", "authorbirthdate", "totalcopies");
+
+        private final BufferedReader reader;
+        private final int[] positions = new int[COLUMNS.size()];
+        private final StringBuilder cell = new StringBuilder();
+        private long number;
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new BusinessRuleException("El archivo CSV está vacío");
+            }
+            Arrays.fill(positions, -1);
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+                int column = COLUMNS.indexOf(name);
+                if (column >= 0) positions[column] = i;
+            }
+            if (positions[0] < 0 || positions[4] < 0) {
+                throw new BusinessRuleException("El encabezado CSV debe incluir al menos las columnas title y authorEmail");
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) return null;
+            } while (record.size() == 1 && record.get(0).isBlank());
+            number++;
+
+            Integer totalCopies = null;
+            String copies = value(record, 8);
+            if (copies != null && !copies.isBlank()) {
+                try {
+                    totalCopies = Integer.valueOf(copies.trim());
+                } catch (NumberFormatException e) {
+                    return new ParsedRow(number, null, "Las copias solo pueden contener números (0-9). No se permiten letras ni símbolos.");
+                }
+            }
+            CatalogImportRow row = CatalogImportRow.builder()
+                    .title(value(record, 0))
+                    .genre(value(record, 1))
+                    .editorial(value(record, 2))
+                    .publicationDate(value(record, 3))
+                    .authorEmail(value(record, 4))
+                    .authorFirstName(value(record, 5))
+                    .authorLastName(value(record, 6))
+                    .authorBirthDate(value(record, 7))
+                    .totalCopies(totalCopies)
+                    .build();
+            return new ParsedRow(number, row, null);
+        }
+
+        private String value(List<String> record, int column) {
+            int position = positions[column];
+            return position >= 0 && position < record.size() ? record.get(position) : null;
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> record = new ArrayList<>();
+            cell.setLength(0);
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) return null;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            cell.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        cell.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') reader.reset();
+                    }
+                    break;
+                } else {
+                    cell.append((char) c);
+                }
+                c = reader.read();
+            }
+            record.add(cell.toString());
+            return record;
+        }
+    }
+
+    // =====================================================
+    // Estado del trabajo
+    // =====================================================
+
+    private final class ImportJob {
+        final String id;
+        final String fileName;
+        final ExportFormat format;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile State state = State.QUEUED;
+        volatile String message;
+        /** Algún bloque confirmado no entró al índice de búsqueda: se reconstruye al terminar */
+        volatile boolean searchIndexStale;
+
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsFailed = new AtomicLong();
+        final AtomicLong booksCreated = new AtomicLong();
+        final AtomicLong authorsCreated = new AtomicLong();
+        final AtomicLong inventoriesCreated = new AtomicLong();
+        // Sin monitores: addError corre en los hilos del import y toResponse en los de las solicitudes
+        final Queue<CatalogImportError> errors = new ConcurrentLinkedQueue<>();
+        final AtomicInteger errorsKept = new AtomicInteger();
+
+        ImportJob(String id, String fileName, ExportFormat format) {
+            this.id = id;
+            this.fileName = fileName;
+            this.format = format;
+        }
+
+        void start() {
+            startedAt = LocalDateTime.now();
+            state = State.RUNNING;
+        }
+
+        void finish(State finalState, String failure) {
+            message = failure;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        void addError(long row, String error) {
+            rowsFailed.incrementAndGet();
+            if (errorsKept.getAndIncrement() < maxErrors) {
+                errors.add(new CatalogImportError(row, error));
+            }
+        }
+
+        CatalogImportJobResponse toResponse() {
+            List<CatalogImportError> snapshot = List.copyOf(errors);
+            return CatalogImportJobResponse.builder()
+                    .id(id)
+                    .fileName(fileName)
+                    .format(format.getExtension())
+                    .state(state.name())
+                    .message(message)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .rowsRead(rowsRead.get())
+                    .rowsFailed(rowsFailed.get())
+                    .booksCreated(booksCreated.get())
+                    .authorsCreated(authorsCreated.get())
+                    .inventoriesCreated(inventoriesCreated.get())
+                    .errors(snapshot)
+                    .errorsTruncated(rowsFailed.get() > snapshot.size())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse;
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse.NameValue;
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse.TrendPoint;
+import com.app.emsx.events.LibraryEvent;
+import com.app.emsx.events.LibraryEvent.Entity;
+import com.app.emsx.repositories.*;
+import com.app.emsx.services.DashboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 📊 DashboardServiceImpl
+ * -----------------------------------------------------
+ * ✅ Mantiene en memoria los contadores del dashboard, los libros por autor y la tendencia mensual
+ * ✅ Se actualiza de forma incremental con los LibraryEvent que publican los servicios (después del commit)
+ * ✅ Eliminaciones en cascada y cambios de autor/fecha piden una reconciliación en lugar de adivinar el efecto
+ * ✅ Reconciliación periódica contra la BD con consultas agregadas (corrige cualquier desvío)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+
+    private final StudentRepository studentRepository;
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final ReturnRepository returnRepository;
+    private final InventoryRepository inventoryRepository;
+
+    @Value("${dashboard.trend-months:6}")
+    private int trendMonths;
+
+    private final Map<Entity, AtomicLong> counters = new EnumMap<>(Entity.class);
+    private final Map<Long, String> authorNames = new ConcurrentSkipListMap<>();
+    private final Map<Long, AtomicLong> booksPerAuthor = new ConcurrentHashMap<>();
+    private final Map<YearMonth, AtomicLong> loansPerMonth = new ConcurrentHashMap<>();
+    private final Map<YearMonth, AtomicLong> returnsPerMonth = new ConcurrentHashMap<>();
+
+    /** Los eventos se aplican en paralelo (lectura); la reconciliación reemplaza el estado en exclusiva (escritura) */
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final AtomicLong eventSeq = new AtomicLong();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    /** Versión del estado: cambia después de cada modificación e invalida el snapshot cacheado */
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean loaded;
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(long version, DashboardStatsResponse stats) { }
+
+    {
+        for (Entity entity : Entity.values()) {
+            counters.put(entity, new AtomicLong());
+        }
+    }
+
+    /**
+     * ✅ Estadísticas desde memoria; solo se arma un nuevo snapshot si hubo cambios desde el último
+     */
+    @Override
+    public DashboardStatsResponse getStats() {
+        if (!loaded) {
+            reconcile();
+        }
+        long currentVersion = version.get();
+        Snapshot cached = snapshot;
+        if (cached != null && cached.version() == currentVersion) {
+            return cached.stats();
+        }
+        DashboardStatsResponse stats;
+        stateLock.readLock().lock();
+        try {
+            stats = buildSnapshot();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        // Si un evento cambió el estado mientras se armaba, la versión ya no coincide y el próximo pedido lo rearma
+        snapshot = new Snapshot(currentVersion, stats);
+        return stats;
+    }
+
+    /**
+     * ✅ Recalcula todo desde la BD: 5 count() + libros por autor + préstamos/devoluciones por mes
+     */
+    @Override
+    public void reconcile() {
+        long seqAtStart = eventSeq.get();
+        YearMonth firstMonth = YearMonth.now().minusMonths(trendMonths - 1L);
+
+        long students = studentRepository.count();
+        long authors = authorRepository.count();
+        long books = bookRepository.count();
+        long loans = loanRepository.count();
+        long inventories = inventoryRepository.count();
+        long returns = returnRepository.count();
+        List<Object[]> perAuthor = authorRepository.countBooksPerAuthor();
+        List<Object[]> loanMonths = loanRepository.countPerMonthSince(firstMonth.atDay(1));
+        List<Object[]> returnMonths = returnRepository.countPerMonthSince(firstMonth.atDay(1));
+
+        stateLock.writeLock().lock();
+        try {
+            counters.get(Entity.STUDENT).set(students);
+            counters.get(Entity.AUTHOR).set(authors);
+            counters.get(Entity.BOOK).set(books);
+            counters.get(Entity.LOAN).set(loans);
+            counters.get(Entity.INVENTORY).set(inventories);
+            counters.get(Entity.RETURN).set(returns);
+
+            authorNames.clear();
+            booksPerAuthor.clear();
+            for (Object[] row : perAuthor) {
+                Long authorId = (Long) row[0];
+                authorNames.put(authorId, row[1] + " " + row[2]);
+                booksPerAuthor.put(authorId, new AtomicLong(((Number) row[3]).longValue()));
+            }
+
+            fillMonths(loansPerMonth, loanMonths);
+            fillMonths(returnsPerMonth, returnMonths);
+
+            version.incrementAndGet();
+            loaded = true;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+
+        // Un evento aplicado mientras se leía la BD pudo quedar pisado: se vuelve a reconciliar
+        if (eventSeq.get() != seqAtStart) {
+            reconcileRequested.set(true);
+        }
+        log.debug("Dashboard reconciliado: {} préstamos, {} libros, {} autores", loans, books, authors);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * ✅ Reconciliación periódica completa
+     */
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * ✅ Atiende las reconciliaciones pedidas por eventos (varias solicitudes se agrupan en una sola pasada)
+     */
+    @Scheduled(fixedDelayString = "${dashboard.pending-check-ms:2000}")
+    public void reconcileIfRequested() {
+        if (reconcileRequested.compareAndSet(true, false)) {
+            reconcile();
+        }
+    }
+
+    /**
+     * ✅ Aplica un cambio confirmado (AFTER_COMMIT); sin transacción activa se aplica al publicarse
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryEvent(LibraryEvent event) {
+        stateLock.readLock().lock();
+        try {
+            eventSeq.incrementAndGet();
+            apply(event);
+            version.incrementAndGet();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private void apply(LibraryEvent event) {
+        AtomicLong counter = counters.get(event.getEntity());
+        switch (event.getAction()) {
+            case CREATED -> {
+                counter.incrementAndGet();
+                switch (event.getEntity()) {
+                    case AUTHOR -> {
+                        authorNames.put(event.getId(), event.getLabel());
+                        booksPerAuthor.putIfAbsent(event.getId(), new AtomicLong());
+                    }
+                    case BOOK -> {
+                        if (event.getAuthorId() != null) {
+                            booksPerAuthor.computeIfAbsent(event.getAuthorId(), k -> new AtomicLong()).incrementAndGet();
+                        }
+                    }
+                    case LOAN -> bump(loansPerMonth, event.getDate(), 1);
+                    case RETURN -> bump(returnsPerMonth, event.getDate(), 1);
+                    default -> { }
+                }
+            }
+            case UPDATED -> {
+                switch (event.getEntity()) {
+                    case AUTHOR -> authorNames.computeIfPresent(event.getId(), (id, old) -> event.getLabel());
+                    // Puede haber cambiado el mes de la devolución (el autor del libro y las fechas del préstamo no se editan)
+                    case RETURN -> reconcileRequested.set(true);
+                    default -> { }
+                }
+            }
+            case DELETED -> {
+                counter.decrementAndGet();
+                switch (event.getEntity()) {
+                    case RETURN -> bump(returnsPerMonth, event.getDate(), -1);
+                    case INVENTORY -> { }
+                    case LOAN -> {
+                        bump(loansPerMonth, event.getDate(), -1);
+                        reconcileRequested.set(true); // su devolución se elimina en cascada
+                    }
+                    // Autor, libro y estudiante eliminan en cascada otras filas
+                    default -> reconcileRequested.set(true);
+                }
+            }
+        }
+    }
+
+    private void bump(Map<YearMonth, AtomicLong> buckets, LocalDate date, long delta) {
+        if (date == null) return;
+        YearMonth month = YearMonth.from(date);
+        if (month.isBefore(YearMonth.now().minusMonths(trendMonths - 1L))) return;
+        buckets.computeIfAbsent(month, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private void fillMonths(Map<YearMonth, AtomicLong> buckets, List<Object[]> rows) {
+        buckets.clear();
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            buckets.put(month, new AtomicLong(((Number) row[2]).longValue()));
+        }
+    }
+
+    private DashboardStatsResponse buildSnapshot() {
+        List<NameValue> perAuthor = new ArrayList<>(authorNames.size());
+        authorNames.forEach((id, name) -> {
+            AtomicLong count = booksPerAuthor.get(id);
+            perAuthor.add(new NameValue(name, count != null ? count.get() : 0));
+        });
+
+        List<TrendPoint> trend = new ArrayList<>(trendMonths);
+        YearMonth month = YearMonth.now().minusMonths(trendMonths - 1L);
+        for (int i = 0; i < trendMonths; i++, month = month.plusMonths(1)) {
+            trend.add(new TrendPoint(
+                    month.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH),
+                    valueOf(loansPerMonth.get(month)),
+                    valueOf(returnsPerMonth.get(month))));
+        }
+
+        return DashboardStatsResponse.builder()
+                .students(counters.get(Entity.STUDENT).get())
+                .authors(counters.get(Entity.AUTHOR).get())
+                .books(counters.get(Entity.BOOK).get())
+                .loans(counters.get(Entity.LOAN).get())
+                .inventories(counters.get(Entity.INVENTORY).get())
+                .employeesPerDept(perAuthor)
+                .trendData(trend)
+                .build();
+    }
+
+    private static long valueOf(AtomicLong value) {
+        return value != null ? value.get() : 0;
+    }
+}
@@ -0,0 +1,284 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse;
+import com.app.emsx.dtos.dashboard.DashboardStreamFrame;
+import com.app.emsx.events.LibraryEvent;
+import com.app.emsx.mappers.InventoryMapper;
+import com.app.emsx.repositories.InventoryRepository;
+import com.app.emsx.services.DashboardService;
+import com.app.emsx.services.DashboardStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 📡 DashboardStreamServiceImpl
+ * -----------------------------------------------------
+ * ✅ Canal SSE para el dashboard y el inventario (reemplaza el polling de cada pestaña)
+ * ✅ Los cambios confirmados (LibraryEvent) se acumulan y se envían en UN frame por intervalo
+ * ✅ Cada frame se serializa una sola vez y se reparte a todos los suscriptores
+ * ✅ SseEmitter es asíncrono: un suscriptor inactivo no ocupa un hilo del servidor
+ * ✅ flush() y heartbeat() solo encolan: cada suscriptor tiene su cola y la vacía un pool propio
+ *   (dashboard.stream.sender-threads), así un cliente que no lee no frena al resto ni al scheduler compartido
+ * ✅ Suscriptor lento: con más de dashboard.stream.max-queued-frames frames pendientes o un envío trabado
+ *   más de dashboard.stream.send-timeout-ms se cierra su conexión (el cliente se reconecta y recibe el estado actual)
+ */
+@Slf4j
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private final DashboardService dashboardService;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMapper inventoryMapper;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int maxQueuedFrames;
+    private final long sendTimeoutMs;
+    private final ExecutorService sender;
+    private final Counter dropped;
+
+    public DashboardStreamServiceImpl(
+            DashboardService dashboardService,
+            InventoryRepository inventoryRepository,
+            InventoryMapper inventoryMapper,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${dashboard.stream.sender-threads:4}") int senderThreads,
+            @Value("${dashboard.stream.max-queued-frames:10}") int maxQueuedFrames,
+            @Value("${dashboard.stream.send-timeout-ms:10000}") long sendTimeoutMs
+    ) {
+        this.dashboardService = dashboardService;
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryMapper = inventoryMapper;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.maxQueuedFrames = maxQueuedFrames;
+        this.sendTimeoutMs = sendTimeoutMs;
+        // Como mucho una tarea por suscriptor en la cola del pool (Subscriber.draining)
+        AtomicInteger sequence = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dropped = Counter.builder("dashboard.stream.dropped")
+                .description("Suscriptores SSE desconectados por no leer a tiempo")
+                .register(meterRegistry);
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Set<Long> changedBookIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deletedInventoryIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong frameId = new AtomicLong();
+    private volatile DashboardStatsResponse lastSentStats;
+
+    /**
+     * ✅ Nueva suscripción: recibe de inmediato las estadísticas actuales y luego solo los cambios
+     */
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        DashboardStreamFrame initial = DashboardStreamFrame.builder()
+                .stats(dashboardService.getStats())
+                .inventories(List.of())
+                .deletedInventoryIds(List.of())
+                .build();
+        Set<DataWithMediaType> frame = buildFrame(initial);
+        if (frame != null) {
+            subscriber.offer(frame);
+        }
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * ✅ Registra qué inventarios cambiaron; el envío lo hace flush()
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryEvent(LibraryEvent event) {
+        switch (event.getEntity()) {
+            case INVENTORY -> {
+                if (event.getAction() == LibraryEvent.Action.DELETED) {
+                    deletedInventoryIds.add(event.getId());
+                } else if (event.getBookId() != null) {
+                    changedBookIds.add(event.getBookId());
+                }
+            }
+            case LOAN, RETURN -> {
+                if (event.getBookId() != null) {
+                    changedBookIds.add(event.getBookId());
+                }
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * ✅ Un frame por intervalo con todo lo acumulado (una ráfaga de préstamos = un solo envío
+     * y una sola consulta de inventarios)
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.flush-ms:1000}")
+    public void flush() {
+        if (subscribers.isEmpty()) {
+            changedBookIds.clear();
+            deletedInventoryIds.clear();
+            return;
+        }
+
+        List<Long> bookIds = drain(changedBookIds);
+        List<Long> deletedIds = drain(deletedInventoryIds);
+        DashboardStatsResponse stats = dashboardService.getStats();
+        // getStats() devuelve el mismo snapshot mientras nada cambie (incluye reconciliaciones)
+        boolean statsChanged = stats != lastSentStats;
+        if (!statsChanged && bookIds.isEmpty() && deletedIds.isEmpty()) {
+            return;
+        }
+
+        DashboardStreamFrame payload = DashboardStreamFrame.builder()
+                .stats(statsChanged ? stats : null)
+                .inventories(bookIds.isEmpty() ? List.of()
+                        : inventoryRepository.findByBookIds(bookIds).stream().map(inventoryMapper::toResponse).toList())
+                .deletedInventoryIds(deletedIds)
+                .build();
+        Set<DataWithMediaType> frame = buildFrame(payload);
+        if (frame == null) {
+            return;
+        }
+        lastSentStats = stats;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    /**
+     * ✅ Comentario SSE periódico para que proxies y navegadores no corten conexiones inactivas
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) return;
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(ping);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private Set<DataWithMediaType> buildFrame(DashboardStreamFrame payload) {
+        try {
+            return SseEmitter.event()
+                    .id(String.valueOf(frameId.incrementAndGet()))
+                    .name("dashboard")
+                    .data(objectMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar el frame del dashboard", e);
+            return null;
+        }
+    }
+
+    /**
+     * Conexión SSE con su cola de frames; un solo hilo del pool la vacía a la vez (los frames llegan en orden)
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Inicio del envío en curso (System.nanoTime), 0 = sin envío */
+        private volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Encola sin bloquear; descarta la suscripción si el cliente no está leyendo */
+        void offer(Set<DataWithMediaType> frame) {
+            long since = sendingSince;
+            if (since != 0 && System.nanoTime() - since > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                drop("envío trabado más de " + sendTimeoutMs + " ms");
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueuedFrames) {
+                drop("más de " + maxQueuedFrames + " frames pendientes");
+                return;
+            }
+            queue.add(frame);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while ((frame = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    sendingSince = System.nanoTime();
+                    emitter.send(frame);
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado: se descarta la suscripción
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Un frame encolado justo después del último poll() no debe quedar esperando al siguiente
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drop(String reason) {
+            if (subscribers.remove(this)) {
+                dropped.increment();
+                log.debug("Suscriptor SSE descartado: {}", reason);
+                queue.clear();
+                emitter.completeWithError(new IOException("Suscriptor SSE lento: " + reason));
+            }
+        }
+    }
+
+    private static List<Long> drain(Set<Long> source) {
+        List<Long> drained = new ArrayList<>();
+        for (Iterator<Long> it = source.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+}
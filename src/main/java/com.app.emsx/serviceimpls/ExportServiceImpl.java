@@ -0,0 +1,333 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.common.ExportFormat;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.exceptions.ServiceOverloadedException;
+import com.app.emsx.services.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 📤 ExportServiceImpl
+ * -----------------------------------------------------
+ * ✅ Exporta préstamos, devoluciones e inventario como NDJSON o CSV directamente desde un cursor JDBC
+ * ✅ Cada fila se escribe en la respuesta apenas se lee: sin entidades, DTOs ni listas en memoria
+ *    (memoria constante, independiente de la cantidad de filas)
+ * ✅ Cursor de solo avance con export.fetch-size (MySQL: Integer.MIN_VALUE = lectura fila a fila)
+ * ✅ Filtro opcional por rango de fechas (dateLoan / dateReturn, ambos extremos incluidos) y gzip opcional
+ * ✅ Cada exportación retiene una conexión del pool mientras dura: como máximo export.max-concurrent a la vez,
+ *    las demás reciben 503 + Retry-After antes de abrir la respuesta
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ExportQuery LOANS = new ExportQuery("loans",
+            "SELECT l.id, l.state, l.date_loan, l.due_date, l.amount, l.provisional_penalty, l.observations, " +
+            "l.student_id, CONCAT(s.first_name, ' ', s.last_name), l.book_id, b.title " +
+            "FROM loans l LEFT JOIN students s ON s.id = l.student_id LEFT JOIN books b ON b.id = l.book_id",
+            "l.date_loan", "l.id",
+            List.of(new Column("id", Long.class), new Column("state", String.class),
+                    new Column("dateLoan", LocalDate.class), new Column("dueDate", LocalDate.class),
+                    new Column("amount", Double.class), new Column("provisionalPenalty", Double.class),
+                    new Column("observations", String.class), new Column("studentId", Long.class),
+                    new Column("studentName", String.class), new Column("bookId", Long.class),
+                    new Column("bookTitle", String.class)));
+
+    private static final ExportQuery RETURNS = new ExportQuery("returns",
+            "SELECT r.id, r.date_return, r.observations, r.penalty, r.loan_id FROM returns r",
+            "r.date_return", "r.id",
+            List.of(new Column("id", Long.class), new Column("dateReturn", LocalDate.class),
+                    new Column("observations", String.class), new Column("penalty", Double.class),
+                    new Column("loanId", Long.class)));
+
+    private static final ExportQuery INVENTORY = new ExportQuery("inventory",
+            "SELECT i.id, i.total_copies, i.available_copies, i.borrowed_copies, i.observations, i.last_updated, " +
+            "i.book_id, b.title FROM inventory i LEFT JOIN books b ON b.id = i.book_id",
+            null, "i.id",
+            List.of(new Column("id", Long.class), new Column("totalCopies", Integer.class),
+                    new Column("availableCopies", Integer.class), new Column("borrowedCopies", Integer.class),
+                    new Column("observations", String.class), new Column("lastUpdated", LocalDateTime.class),
+                    new Column("bookId", Long.class), new Column("bookTitle", String.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+    private final Semaphore slots;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    public ExportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${export.fetch-size:-2147483648}") int fetchSize,
+            @Value("${export.max-concurrent:2}") int maxConcurrent,
+            @Value("${export.retry-after-seconds:30}") long retryAfterSeconds
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+        this.slots = new Semaphore(maxConcurrent);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = Counter.builder("exports.rejected")
+                .description("Exportaciones descartadas por límite de concurrencia")
+                .register(meterRegistry);
+        Gauge.builder("exports.active", slots, s -> maxConcurrent - s.availablePermits())
+                .description("Exportaciones en curso")
+                .register(meterRegistry);
+    }
+
+    /** Columna exportada: nombre (igual que en los DTO) y tipo Java con el que se lee del ResultSet */
+    private record Column(String name, Class<?> type) { }
+
+    /** dateColumn = columna del filtro por rango (null si no admite), idColumn = desempate del orden */
+    private record ExportQuery(String name, String select, String dateColumn, String idColumn, List<Column> columns) { }
+
+    @Override
+    public StreamingResponseBody exportLoans(ExportFormat format, LocalDate from, LocalDate to, boolean gzip) {
+        return stream(LOANS, format, from, to, gzip);
+    }
+
+    @Override
+    public StreamingResponseBody exportReturns(ExportFormat format, LocalDate from, LocalDate to, boolean gzip) {
+        return stream(RETURNS, format, from, to, gzip);
+    }
+
+    @Override
+    public StreamingResponseBody exportInventory(ExportFormat format, boolean gzip) {
+        return stream(INVENTORY, format, null, null, gzip);
+    }
+
+    /**
+     * ✅ Valida y reserva un cupo antes de responder (los errores aún pueden ser 409 o 503);
+     *    la consulta corre al escribir la respuesta y el cupo se libera al terminarla
+     */
+    private StreamingResponseBody stream(ExportQuery query, ExportFormat format,
+                                         LocalDate from, LocalDate to, boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessRuleException("La fecha 'from' no puede ser posterior a 'to'");
+        }
+
+        StringBuilder sql = new StringBuilder(query.select());
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append(query.dateColumn()).append(" >= ?");
+            params.add(java.sql.Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append(query.dateColumn()).append(" <= ?");
+            params.add(java.sql.Date.valueOf(to));
+        }
+        // Con rango se recorre el índice de la fecha (fecha, id); sin rango, la clave primaria
+        sql.append(params.isEmpty()
+                ? " ORDER BY " + query.idColumn()
+                : " ORDER BY " + query.dateColumn() + ", " + query.idColumn());
+
+        Counter rowsCounter = Counter.builder("exports.rows")
+                .description("Filas exportadas por /api/exports")
+                .tag("type", query.name())
+                .register(meterRegistry);
+
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "Hay demasiadas exportaciones en curso. Intenta nuevamente más tarde.", retryAfterSeconds);
+        }
+        return outputStream -> {
+            try {
+                write(query, format, gzip, sql.toString(), params, rowsCounter, outputStream);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    /** Recorre el cursor y escribe cada fila; corre en el hilo asíncrono con el cupo ya reservado */
+    private void write(ExportQuery query, ExportFormat format, boolean gzip, String sql, List<Object> params,
+                       Counter rowsCounter, OutputStream outputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        OutputStream target = gzip
+                ? new GZIPOutputStream(outputStream, BUFFER_SIZE)
+                : new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        RowWriter writer = format == ExportFormat.CSV
+                ? new CsvRowWriter(target, query.columns())
+                : new NdjsonRowWriter(objectMapper, target, query.columns());
+        long[] rows = {0};
+        try {
+            writer.begin();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                writer.write(rs);
+                rows[0]++;
+            });
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            target.flush();
+        } catch (UncheckedIOException e) {
+            // El cliente cerró la conexión: el finally de JdbcTemplate ya cerró el cursor
+            log.warn("Exportación de {} interrumpida tras {} filas: {}", query.name(), rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            rowsCounter.increment(rows[0]);
+        }
+        log.info("Exportación de {} ({}{}): {} filas en {} ms", query.name(), format.getExtension(),
+                gzip ? ", gzip" : "", rows[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Escritura fila a fila; los IOException se envuelven porque RowCallbackHandler solo admite SQLException
+     */
+    private interface RowWriter {
+        void begin() throws IOException;
+        void write(ResultSet rs) throws SQLException;
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final List<Column> columns;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out, List<Column> columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Un objeto por línea: el separador lo escribe write() como salto de línea
+            this.generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() { }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.size(); i++) {
+                    Column column = columns.get(i);
+                    Object value = rs.getObject(i + 1, column.type());
+                    generator.writeFieldName(column.name());
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof Long number) {
+                        generator.writeNumber(number);
+                    } else if (value instanceof Integer number) {
+                        generator.writeNumber(number);
+                    } else if (value instanceof Double number) {
+                        generator.writeNumber(number);
+                    } else {
+                        generator.writeString(format(value));
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<Column> columns;
+
+        CsvRowWriter(OutputStream out, List<Column> columns) {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) writer.write(',');
+                writer.write(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            try {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) writer.write(',');
+                    Object value = rs.getObject(i + 1, columns.get(i).type());
+                    if (value != null) {
+                        writeCell(value instanceof String text ? text : format(value));
+                    }
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /** RFC 4180: entre comillas (duplicadas) solo si el valor contiene coma, comillas o saltos de línea */
+        private void writeCell(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /** Fechas en ISO-8601 (igual que los DTO: yyyy-MM-dd y yyyy-MM-ddTHH:mm:ss) */
+    private static String format(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        }
+        return value.toString();
+    }
+}
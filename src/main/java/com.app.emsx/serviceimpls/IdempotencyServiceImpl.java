@@ -0,0 +1,121 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.services.IdempotencyService;
+import com.app.emsx.services.IdempotencyStore;
+import com.app.emsx.services.IdempotencyStore.Entry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 🔁 IdempotencyServiceImpl
+ * -----------------------------------------------------
+ * ✅ Reintentos del frontend (Wi-Fi inestable) con el mismo Idempotency-Key reciben la respuesta original
+ *   sin volver a validar ni escribir en la BD (exactamente una creación por clave)
+ * ✅ La clave se guarda por alcance (loans, returns) y por usuario: dos usuarios no comparten respuestas
+ * ✅ Huella SHA-256 del cuerpo: la misma clave con otra solicitud es un error del cliente (409)
+ * ✅ Solo se guardan respuestas exitosas; si la operación falla la clave se libera y el reintento se ejecuta de nuevo
+ * ✅ Counter idempotency.requests{scope, result}: executed, replayed, mismatch, in_progress
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessRuleException("El encabezado " + KEY_HEADER + " no puede superar " + MAX_KEY_LENGTH + " caracteres");
+        }
+
+        String storeKey = scope + ':' + currentUser() + ':' + key;
+        String fingerprint = fingerprint(request);
+        Entry existing = store.reserve(storeKey, Entry.pending(fingerprint));
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                count(scope, "mismatch");
+                throw new BusinessRuleException("El " + KEY_HEADER + " '" + key + "' ya se usó con una solicitud diferente");
+            }
+            if (!existing.completed()) {
+                count(scope, "in_progress");
+                throw new BusinessRuleException("La solicitud con " + KEY_HEADER + " '" + key + "' todavía se está procesando");
+            }
+            count(scope, "replayed");
+            log.debug("Respuesta repetida para {} {}", scope, key);
+            return new Result<>(read(existing.responseJson(), responseType), true);
+        }
+
+        T value;
+        try {
+            value = action.get();
+        } catch (RuntimeException | Error e) {
+            store.release(storeKey);
+            throw e;
+        }
+        try {
+            store.complete(storeKey, new Entry(fingerprint, objectMapper.writeValueAsString(value)));
+        } catch (JsonProcessingException e) {
+            // La operación ya se confirmó: se responde igual, solo que sin poder repetir esta respuesta
+            store.release(storeKey);
+            log.warn("No se pudo guardar la respuesta idempotente de {} {}: {}", scope, key, e.getMessage());
+        }
+        count(scope, "executed");
+        return new Result<>(value, false);
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(json, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta idempotente guardada ilegible", e);
+        }
+    }
+
+    private void count(String scope, String result) {
+        counters.computeIfAbsent(scope + '|' + result, k -> Counter.builder("idempotency.requests")
+                        .description("Solicitudes con Idempotency-Key por resultado")
+                        .tags("scope", scope, "result", result)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.exceptions.ServiceOverloadedException;
+import com.app.emsx.services.IdempotencyStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 🗂️ InMemoryIdempotencyStore
+ * -----------------------------------------------------
+ * ✅ Caché Caffeine que solo expira por tiempo: cada clave dura idempotency.ttl-seconds después de guardarse
+ *   (sin expulsión por tamaño: una clave pendiente o completada nunca sale antes y el reintento no crea otro registro)
+ * ✅ Límite duro de idempotency.max-entries claves vigentes: con el almacén lleno una clave nueva recibe
+ *   503 + Retry-After (la solicitud no se ejecuta); las claves ya guardadas se siguen respondiendo
+ * ✅ El límite puede excederse por unas pocas reservas simultáneas (la comprobación no es atómica con la inserción)
+ * ✅ Solo se guarda el JSON de la respuesta (sin entidades ni objetos de Hibernate)
+ * ✅ Por instancia: con varias instancias detrás de un balanceador, usar un almacén compartido (idempotency.store)
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final long maxEntries;
+    private final long retryAfterSeconds;
+
+    public InMemoryIdempotencyStore(
+            @Value("${idempotency.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${idempotency.max-entries:50000}") long maxEntries,
+            @Value("${idempotency.retry-after-seconds:30}") long retryAfterSeconds
+    ) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.maxEntries = maxEntries;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public Entry reserve(String key, Entry pending) {
+        Entry existing = entries.getIfPresent(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (entries.estimatedSize() >= maxEntries) {
+            // estimatedSize incluye claves ya expiradas que aún no se limpiaron
+            entries.cleanUp();
+            if (entries.estimatedSize() >= maxEntries) {
+                throw new ServiceOverloadedException(
+                        "Hay demasiadas solicitudes con Idempotency-Key vigentes. Intenta nuevamente más tarde.",
+                        retryAfterSeconds);
+            }
+        }
+        return entries.asMap().putIfAbsent(key, pending);
+    }
+
+    @Override
+    public void complete(String key, Entry completed) {
+        entries.put(key, completed);
+    }
+
+    @Override
+    public void release(String key) {
+        entries.invalidate(key);
+    }
+}
@@ -1,9 +1,12 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.common.KeysetCursors;
 import com.app.emsx.dtos.inventory.InventoryRequest;
 import com.app.emsx.dtos.inventory.InventoryResponse;
 import com.app.emsx.entities.Book;
 import com.app.emsx.entities.Inventory;
+import com.app.emsx.events.LibraryEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.InventoryMapper;
@@ -12,10 +15,13 @@ import com.app.emsx.repositories.InventoryRepository;
 import com.app.emsx.repositories.LoanRepository;
 import com.app.emsx.services.InventoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 📦 InventoryServiceImpl
@@ -27,10 +33,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class InventoryServiceImpl implements InventoryService {
 
+    /** Claves de orden permitidas en el listado paginado (NOT NULL y con índice (clave, id), ver V5) */
+    private static final Set<String> SORT_KEYS = Set.of("id");
+
     private final InventoryRepository repository;
     private final BookRepository bookRepository;
     private final LoanRepository loanRepository;
     private final InventoryMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public InventoryResponse create(InventoryRequest request) {
@@ -99,7 +109,9 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setBorrowedCopies(0);
 
         // Guardar y retornar
-        return mapper.toResponse(repository.save(inventory));
+        Inventory saved = repository.save(inventory);
+        eventPublisher.publishEvent(LibraryEvent.inventory(LibraryEvent.Action.CREATED, saved.getId(), book.getId()));
+        return mapper.toResponse(saved);
     }
 
     @Override
@@ -140,12 +152,7 @@ public class InventoryServiceImpl implements InventoryService {
         Book book = inventory.getBook();
         int realBorrowedCopies = 0;
         if (book != null) {
-            List<String> activeStates = Arrays.asList("ACTIVE", "OVERDUE");
-            List<com.app.emsx.entities.Loan> activeLoans = loanRepository.findActiveLoansByBook(
-                    book.getId(), 
-                    activeStates
-            );
-            realBorrowedCopies = activeLoans.size();
+            realBorrowedCopies = (int) loanRepository.countActiveByBook(book.getId(), LoanRepository.ACTIVE_STATES);
         }
         
         // Si se intenta enviar un valor de borrowedCopies que no existe (mayor que préstamos reales)
@@ -182,7 +189,9 @@ public class InventoryServiceImpl implements InventoryService {
             inventory.setObservations(request.getObservations());
         }
 
-        return mapper.toResponse(repository.save(inventory));
+        Inventory saved = repository.save(inventory);
+        eventPublisher.publishEvent(LibraryEvent.inventory(LibraryEvent.Action.UPDATED, saved.getId(), saved.getBook() != null ? saved.getBook().getId() : null));
+        return mapper.toResponse(saved);
     }
 
     @Override
@@ -193,6 +202,13 @@ public class InventoryServiceImpl implements InventoryService {
                 .toList();
     }
 
+    @Override
+    public CursorPage<InventoryResponse> findPage(String cursor, Integer size, String sort, String direction) {
+        Sort order = KeysetCursors.sort(sort, direction, SORT_KEYS);
+        Window<Inventory> window = repository.findBy(KeysetCursors.position(cursor, order), order, KeysetCursors.limit(size));
+        return KeysetCursors.page(window, order, mapper::toResponse);
+    }
+
     @Override
     public InventoryResponse findById(Long id) {
         Inventory inventory = repository.findById(id)
@@ -209,13 +225,7 @@ public class InventoryServiceImpl implements InventoryService {
         Book book = inventory.getBook();
         if (book != null) {
             // Verificar si el libro tiene préstamos activos
-            List<String> activeStates = Arrays.asList("ACTIVE", "OVERDUE");
-            List<com.app.emsx.entities.Loan> activeLoans = loanRepository.findActiveLoansByBook(
-                    book.getId(), 
-                    activeStates
-            );
-            
-            if (!activeLoans.isEmpty()) {
+            if (loanRepository.existsActiveByBook(book.getId(), LoanRepository.ACTIVE_STATES)) {
                 throw new BusinessRuleException("No se puede eliminar el inventario. El libro tiene préstamos activos. Debe devolver todos los préstamos primero.");
             }
             
@@ -227,6 +237,7 @@ public class InventoryServiceImpl implements InventoryService {
         }
 
         repository.delete(inventory);
+        eventPublisher.publishEvent(LibraryEvent.inventory(LibraryEvent.Action.DELETED, id, null));
     }
 }
 
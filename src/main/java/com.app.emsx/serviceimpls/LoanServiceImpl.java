@@ -1,10 +1,15 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.common.KeysetCursors;
+import com.app.emsx.dtos.loan.LoanBatchItemResponse;
+import com.app.emsx.dtos.loan.LoanBatchResponse;
 import com.app.emsx.dtos.loan.LoanRequest;
 import com.app.emsx.dtos.loan.LoanResponse;
 import com.app.emsx.entities.Book;
 import com.app.emsx.entities.Loan;
 import com.app.emsx.entities.Student;
+import com.app.emsx.events.LibraryEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.LoanMapper;
@@ -14,15 +19,30 @@ import com.app.emsx.repositories.InventoryRepository;
 import com.app.emsx.repositories.LoanRepository;
 import com.app.emsx.repositories.StudentRepository;
 import com.app.emsx.services.LoanService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 📖 LoanServiceImpl
@@ -34,13 +54,19 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LoanServiceImpl implements LoanService {
 
+    /** Claves de orden permitidas en el listado paginado (NOT NULL y con índice (clave, id), ver V5) */
+    private static final Set<String> SORT_KEYS = Set.of("id", "dateLoan");
+
     private final LoanRepository repository;
     private final StudentRepository studentRepository;
     private final BookRepository bookRepository;
     private final InventoryRepository inventoryRepository;
     private final LoanMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
     @Override
+    @Transactional
     public LoanResponse create(LoanRequest request) {
         // Verificar existencia del estudiante
         Student student = studentRepository.findById(request.getStudentId())
@@ -50,109 +76,171 @@ public class LoanServiceImpl implements LoanService {
         Book book = bookRepository.findById(request.getBookId())
                 .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + request.getBookId()));
 
-        // Validar inventario: verificar si hay copias disponibles
-        // Con el sistema de inventario, múltiples estudiantes pueden tener el mismo libro prestado
-        // siempre que haya copias disponibles
-        Inventory inventory = book.getInventory();
-        if (inventory != null) {
-            if (inventory.getAvailableCopies() == null || inventory.getAvailableCopies() <= 0) {
-                throw new BusinessRuleException("No hay copias disponibles de este libro. Copias disponibles: " + 
-                    (inventory.getAvailableCopies() != null ? inventory.getAvailableCopies() : 0));
-            }
-        } else {
-            // Si el libro no tiene inventario, no se puede prestar
-            throw new BusinessRuleException("Este libro no tiene inventario registrado. Debe crear un inventario primero.");
-        }
-        
         // Validar que el estudiante no tenga un préstamo activo del mismo libro
         // Un estudiante no puede tener múltiples préstamos activos del mismo libro simultáneamente
-        List<String> activeStates = Arrays.asList("ACTIVE", "OVERDUE");
-        List<Loan> existingActiveLoans = repository.findActiveLoansByStudentAndBook(
-                request.getStudentId(), 
-                request.getBookId(), 
-                activeStates
-        );
-        if (!existingActiveLoans.isEmpty()) {
+        if (repository.existsActiveByStudentAndBook(
+                request.getStudentId(), request.getBookId(), LoanRepository.ACTIVE_STATES)) {
             throw new BusinessRuleException("El estudiante ya tiene un préstamo activo de este libro. Debe devolverlo antes de solicitar otro préstamo.");
         }
 
-        // Validar monto
-        if (request.getAmount() < 0) {
-            throw new BusinessRuleException("El monto no puede ser negativo");
-        }
-        if (request.getAmount() > 9999.99) {
-            throw new BusinessRuleException("El monto máximo permitido es 9999.99 (4 dígitos enteros y 2 decimales)");
-        }
-        // Validar formato: máximo 4 enteros y 2 decimales
-        // Usar BigDecimal para evitar problemas de precisión con double
-        BigDecimal amount = BigDecimal.valueOf(request.getAmount());
-        amount = amount.setScale(2, RoundingMode.HALF_UP);
-        
-        // Obtener la parte entera
-        long integerPart = amount.longValue();
+        // Validar monto, fechas, observaciones y estado inicial
+        validateNewLoan(request);
+
+        // Mapear DTO → Entity
+        Loan loan = mapper.toEntity(request);
+        loan.setStudent(student);
+        loan.setBook(book);
         
-        // Validar que la parte entera tenga máximo 4 dígitos (permitir 1, 2, 3 o 4 dígitos)
-        // Un número de 4 dígitos puede ser desde 1000 hasta 9999
-        if (integerPart > 9999) {
-            throw new BusinessRuleException("El monto no puede tener más de 4 dígitos enteros");
-        }
+        // Forzar que el estado sea ACTIVE al crear (por si viene null o vacío)
+        loan.setState("ACTIVE");
 
-        // Validar fechas de préstamo
-        if (request.getDateLoan() != null) {
-            LocalDate today = LocalDate.now();
-            if (request.getDateLoan().isBefore(today)) {
-                throw new BusinessRuleException("La fecha de préstamo no puede ser en el pasado");
-            }
-            if (request.getDateLoan().isAfter(today)) {
-                throw new BusinessRuleException("La fecha de préstamo no puede ser futura");
+        // Reservar la copia en el inventario: restar 1 disponible, sumar 1 prestada.
+        // Se hace con un UPDATE condicional en la base de datos (no leer-modificar-escribir en Java),
+        // así dos préstamos concurrentes de la última copia no pueden tener éxito a la vez.
+        // Es la única verificación de copias: la entidad Inventory cargada no refleja otros préstamos concurrentes.
+        if (inventoryRepository.reserveCopy(book.getId(), LocalDateTime.now()) == 0) {
+            if (!inventoryRepository.existsByBookId(book.getId())) {
+                // Si el libro no tiene inventario, no se puede prestar
+                throw new BusinessRuleException("Este libro no tiene inventario registrado. Debe crear un inventario primero.");
             }
+            throw new BusinessRuleException("No hay copias disponibles de este libro. Copias disponibles: 0");
         }
-        if (request.getDateLoan() != null && request.getDueDate() != null) {
-            if (request.getDueDate().isBefore(request.getDateLoan())) {
-                throw new BusinessRuleException("La fecha de vencimiento no puede ser anterior a la fecha de préstamo");
-            }
-            // Validar que la fecha de vencimiento no sea más de 7 días después de la fecha de préstamo
-            long daysBetween = ChronoUnit.DAYS.between(request.getDateLoan(), request.getDueDate());
-            if (daysBetween > 7) {
-                throw new BusinessRuleException("La fecha de vencimiento no puede ser más de 7 días después de la fecha de préstamo");
+
+        // Guardar el préstamo (misma transacción que la reserva)
+        Loan savedLoan = repository.save(loan);
+        eventPublisher.publishEvent(LibraryEvent.loan(LibraryEvent.Action.CREATED, savedLoan.getId(), book.getId(), savedLoan.getDateLoan()));
+
+        return mapper.toResponse(savedLoan);
+    }
+
+    /**
+     * ✅ Crear préstamos en lote (ej. entregar los mismos libros a toda una clase)
+     * - Valida todos los ítems y reporta éxito/error por cada uno (un ítem fallido no cancela el lote).
+     * - Carga estudiantes, libros, inventarios y préstamos activos con consultas por conjunto,
+     *   así el número de consultas no depende del tamaño del lote.
+     * - Los inventarios se bloquean (FOR UPDATE) mientras se descuentan las copias.
+     */
+    @Override
+    @Transactional
+    public LoanBatchResponse createBatch(List<LoanRequest> requests) {
+        LoanBatchItemResponse[] results = new LoanBatchItemResponse[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+
+        // 1️⃣ Validaciones de campos (sin base de datos)
+        for (int i = 0; i < requests.size(); i++) {
+            LoanRequest request = requests.get(i);
+            try {
+                if (request == null) {
+                    throw new BusinessRuleException("El préstamo no puede ser nulo");
+                }
+                Set<ConstraintViolation<LoanRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    throw new BusinessRuleException(violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                }
+                validateNewLoan(request);
+                candidates.add(i);
+            } catch (BusinessRuleException e) {
+                results[i] = failure(i, e.getMessage());
             }
         }
 
-        // Validar que las observaciones no excedan 25 caracteres
-        if (request.getObservations() != null && request.getObservations().length() > 25) {
-            throw new BusinessRuleException("Las observaciones no pueden tener más de 25 caracteres");
-        }
+        if (!candidates.isEmpty()) {
+            Set<Long> studentIds = new HashSet<>();
+            Set<Long> bookIds = new HashSet<>();
+            for (int i : candidates) {
+                studentIds.add(requests.get(i).getStudentId());
+                bookIds.add(requests.get(i).getBookId());
+            }
 
-        // Validar que al crear un préstamo, el estado solo pueda ser ACTIVE o null (se establecerá como ACTIVE)
-        if (request.getState() != null) {
-            String stateUpper = request.getState().toUpperCase().trim();
-            if (!stateUpper.equals("ACTIVE")) {
-                throw new BusinessRuleException("No se puede crear un préstamo con estado '" + request.getState() + "'. Los préstamos solo se pueden crear como ACTIVE. Para marcar como devuelto, debe crear una devolución.");
+            // 2️⃣ Cargas por conjunto: una consulta por tipo de dato, no por ítem
+            Map<Long, Student> students = studentRepository.findAllById(studentIds).stream()
+                    .collect(Collectors.toMap(Student::getId, Function.identity()));
+            Set<Long> existingBooks = new HashSet<>(bookRepository.findExistingIds(bookIds));
+            Map<Long, Inventory> inventories = new HashMap<>();
+            if (!existingBooks.isEmpty()) {
+                inventoryRepository.findByBookIdsForUpdate(existingBooks)
+                        .forEach(inventory -> inventories.put(inventory.getBook().getId(), inventory));
+            }
+            Set<String> activePairs = new HashSet<>();
+            for (Object[] pair : repository.findActivePairs(studentIds, bookIds, LoanRepository.ACTIVE_STATES)) {
+                activePairs.add(pairKey((Long) pair[0], (Long) pair[1]));
             }
-        }
 
-        // Mapear DTO → Entity
-        Loan loan = mapper.toEntity(request);
-        loan.setStudent(student);
-        loan.setBook(book);
-        
-        // Forzar que el estado sea ACTIVE al crear (por si viene null o vacío)
-        loan.setState("ACTIVE");
+            // 3️⃣ Reglas de negocio por ítem, en memoria
+            List<Loan> loans = new ArrayList<>();
+            List<Integer> loanIndexes = new ArrayList<>();
+            // Por id: las entidades usan @Data y su hashCode recorre las relaciones
+            Map<Long, Inventory> touched = new LinkedHashMap<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i : candidates) {
+                LoanRequest request = requests.get(i);
+                Student student = students.get(request.getStudentId());
+                if (student == null) {
+                    results[i] = failure(i, "Estudiante no encontrado con ID: " + request.getStudentId());
+                    continue;
+                }
+                if (!existingBooks.contains(request.getBookId())) {
+                    results[i] = failure(i, "Libro no encontrado con ID: " + request.getBookId());
+                    continue;
+                }
+                Inventory inventory = inventories.get(request.getBookId());
+                if (inventory == null) {
+                    results[i] = failure(i, "Este libro no tiene inventario registrado. Debe crear un inventario primero.");
+                    continue;
+                }
+                String pair = pairKey(request.getStudentId(), request.getBookId());
+                if (activePairs.contains(pair)) {
+                    results[i] = failure(i, "El estudiante ya tiene un préstamo activo de este libro. Debe devolverlo antes de solicitar otro préstamo.");
+                    continue;
+                }
+                int available = inventory.getAvailableCopies() != null ? inventory.getAvailableCopies() : 0;
+                if (available <= 0) {
+                    results[i] = failure(i, "No hay copias disponibles de este libro. Copias disponibles: 0");
+                    continue;
+                }
 
-        // Guardar el préstamo
-        Loan savedLoan = repository.save(loan);
+                // Reservar la copia sobre la fila bloqueada
+                // El par queda activo también para ítems repetidos dentro del mismo lote
+                activePairs.add(pair);
+                inventory.setAvailableCopies(available - 1);
+                inventory.setBorrowedCopies((inventory.getBorrowedCopies() != null ? inventory.getBorrowedCopies() : 0) + 1);
+                inventory.setLastUpdated(now);
+                touched.put(inventory.getId(), inventory);
 
-        // Actualizar inventario: restar 1 disponible, sumar 1 prestada
-        if (inventory != null) {
-            inventory.setAvailableCopies(inventory.getAvailableCopies() - 1);
-            inventory.setBorrowedCopies(
-                (inventory.getBorrowedCopies() != null ? inventory.getBorrowedCopies() : 0) + 1
-            );
-            inventory.setLastUpdated(java.time.LocalDateTime.now());
-            inventoryRepository.save(inventory);
+                Loan loan = mapper.toEntity(request);
+                loan.setStudent(student);
+                loan.setBook(inventory.getBook());
+                loan.setState("ACTIVE");
+                loans.add(loan);
+                loanIndexes.add(i);
+            }
+
+            // 4️⃣ Inserción y actualización de inventarios en bloque
+            List<Loan> saved = repository.saveAll(loans);
+            inventoryRepository.saveAll(touched.values());
+            for (int k = 0; k < saved.size(); k++) {
+                int i = loanIndexes.get(k);
+                eventPublisher.publishEvent(LibraryEvent.loan(LibraryEvent.Action.CREATED, saved.get(k).getId(), saved.get(k).getBook().getId(), saved.get(k).getDateLoan()));
+                results[i] = LoanBatchItemResponse.builder()
+                        .index(i)
+                        .success(true)
+                        .message("Préstamo creado correctamente")
+                        .loan(mapper.toResponse(saved.get(k)))
+                        .build();
+            }
         }
 
-        return mapper.toResponse(savedLoan);
+        List<LoanBatchItemResponse> items = Arrays.asList(results);
+        int created = (int) items.stream().filter(LoanBatchItemResponse::isSuccess).count();
+        return LoanBatchResponse.builder()
+                .total(items.size())
+                .created(created)
+                .failed(items.size() - created)
+                .results(items)
+                .build();
     }
 
     @Override
@@ -161,9 +249,11 @@ public class LoanServiceImpl implements LoanService {
                 .orElseThrow(() -> new ResourceNotFoundException("Préstamo no encontrado con ID: " + id));
 
         // Validar que el estado solo pueda ser ACTIVE o RETURNED
+        // (OVERDUE lo asigna el barrido de vencidos; solo se acepta si el préstamo ya lo tiene)
         if (request.getState() != null) {
             String stateUpper = request.getState().toUpperCase().trim();
-            if (!stateUpper.equals("ACTIVE") && !stateUpper.equals("RETURNED")) {
+            boolean keepsOverdue = stateUpper.equals("OVERDUE") && "OVERDUE".equalsIgnoreCase(loan.getState());
+            if (!stateUpper.equals("ACTIVE") && !stateUpper.equals("RETURNED") && !keepsOverdue) {
                 throw new BusinessRuleException("El estado solo puede ser: ACTIVE o RETURNED. Valor recibido: " + request.getState());
             }
             // Normalizar el estado a mayúsculas
@@ -241,7 +331,9 @@ public class LoanServiceImpl implements LoanService {
         // No se permiten cambios en: estudiante, libro, fechas
         mapper.updateEntityFromRequest(request, loan);
 
-        return mapper.toResponse(repository.save(loan));
+        Loan saved = repository.save(loan);
+        eventPublisher.publishEvent(LibraryEvent.loan(LibraryEvent.Action.UPDATED, saved.getId(), saved.getBook() != null ? saved.getBook().getId() : null, saved.getDateLoan()));
+        return mapper.toResponse(saved);
     }
 
     @Override
@@ -252,6 +344,13 @@ public class LoanServiceImpl implements LoanService {
                 .toList();
     }
 
+    @Override
+    public CursorPage<LoanResponse> findPage(String cursor, Integer size, String sort, String direction) {
+        Sort order = KeysetCursors.sort(sort, direction, SORT_KEYS);
+        Window<Loan> window = repository.findBy(KeysetCursors.position(cursor, order), order, KeysetCursors.limit(size));
+        return KeysetCursors.page(window, order, mapper::toResponse);
+    }
+
     @Override
     public LoanResponse findById(Long id) {
         Loan loan = repository.findById(id)
@@ -269,6 +368,9 @@ public class LoanServiceImpl implements LoanService {
         if (loan.getState() != null && loan.getState().equalsIgnoreCase("ACTIVE")) {
             throw new BusinessRuleException("No se puede eliminar un préstamo activo (ACTIVE). El préstamo debe ser devuelto primero.");
         }
+        if (loan.getState() != null && loan.getState().equalsIgnoreCase("OVERDUE")) {
+            throw new BusinessRuleException("No se puede eliminar un préstamo vencido (OVERDUE). El préstamo debe ser devuelto primero.");
+        }
 
         // Si el préstamo está en estado RETURNED, se puede eliminar
         // El inventario ya está correcto porque la devolución lo actualizó al crearse
@@ -276,6 +378,79 @@ public class LoanServiceImpl implements LoanService {
 
         // Eliminar el préstamo (la devolución asociada se eliminará en cascada si existe)
         repository.delete(loan);
+        eventPublisher.publishEvent(LibraryEvent.loan(LibraryEvent.Action.DELETED, id, loan.getBook() != null ? loan.getBook().getId() : null, loan.getDateLoan()));
     }
-}
 
+    /**
+     * Validaciones de campos de un préstamo nuevo (monto, fechas, observaciones y estado).
+     * Compartidas entre create y createBatch.
+     */
+    private void validateNewLoan(LoanRequest request) {
+        // Validar monto
+        if (request.getAmount() < 0) {
+            throw new BusinessRuleException("El monto no puede ser negativo");
+        }
+        if (request.getAmount() > 9999.99) {
+            throw new BusinessRuleException("El monto máximo permitido es 9999.99 (4 dígitos enteros y 2 decimales)");
+        }
+        // Validar formato: máximo 4 enteros y 2 decimales
+        // Usar BigDecimal para evitar problemas de precisión con double
+        BigDecimal amount = BigDecimal.valueOf(request.getAmount());
+        amount = amount.setScale(2, RoundingMode.HALF_UP);
+        
+        // Obtener la parte entera
+        long integerPart = amount.longValue();
+        
+        // Validar que la parte entera tenga máximo 4 dígitos (permitir 1, 2, 3 o 4 dígitos)
+        // Un número de 4 dígitos puede ser desde 1000 hasta 9999
+        if (integerPart > 9999) {
+            throw new BusinessRuleException("El monto no puede tener más de 4 dígitos enteros");
+        }
+
+        // Validar fechas de préstamo
+        if (request.getDateLoan() != null) {
+            LocalDate today = LocalDate.now();
+            if (request.getDateLoan().isBefore(today)) {
+                throw new BusinessRuleException("La fecha de préstamo no puede ser en el pasado");
+            }
+            if (request.getDateLoan().isAfter(today)) {
+                throw new BusinessRuleException("La fecha de préstamo no puede ser futura");
+            }
+        }
+        if (request.getDateLoan() != null && request.getDueDate() != null) {
+            if (request.getDueDate().isBefore(request.getDateLoan())) {
+                throw new BusinessRuleException("La fecha de vencimiento no puede ser anterior a la fecha de préstamo");
+            }
+            // Validar que la fecha de vencimiento no sea más de 7 días después de la fecha de préstamo
+            long daysBetween = ChronoUnit.DAYS.between(request.getDateLoan(), request.getDueDate());
+            if (daysBetween > 7) {
+                throw new BusinessRuleException("La fecha de vencimiento no puede ser más de 7 días después de la fecha de préstamo");
+            }
+        }
+
+        // Validar que las observaciones no excedan 25 caracteres
+        if (request.getObservations() != null && request.getObservations().length() > 25) {
+            throw new BusinessRuleException("Las observaciones no pueden tener más de 25 caracteres");
+        }
+
+        // Validar que al crear un préstamo, el estado solo pueda ser ACTIVE o null (se establecerá como ACTIVE)
+        if (request.getState() != null) {
+            String stateUpper = request.getState().toUpperCase().trim();
+            if (!stateUpper.equals("ACTIVE")) {
+                throw new BusinessRuleException("No se puede crear un préstamo con estado '" + request.getState() + "'. Los préstamos solo se pueden crear como ACTIVE. Para marcar como devuelto, debe crear una devolución.");
+            }
+        }
+    }
+
+    private static LoanBatchItemResponse failure(int index, String message) {
+        return LoanBatchItemResponse.builder()
+                .index(index)
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static String pairKey(Long studentId, Long bookId) {
+        return studentId + ":" + bookId;
+    }
+}
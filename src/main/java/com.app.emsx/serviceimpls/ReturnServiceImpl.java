@@ -1,21 +1,30 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.common.KeysetCursors;
 import com.app.emsx.dtos.return_.ReturnRequest;
 import com.app.emsx.dtos.return_.ReturnResponse;
 import com.app.emsx.entities.Loan;
 import com.app.emsx.entities.Return;
+import com.app.emsx.events.LibraryEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.ReturnMapper;
-import com.app.emsx.entities.Inventory;
 import com.app.emsx.repositories.InventoryRepository;
 import com.app.emsx.repositories.LoanRepository;
 import com.app.emsx.repositories.ReturnRepository;
 import com.app.emsx.services.ReturnService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 🔄 ReturnServiceImpl
@@ -23,16 +32,22 @@ import java.util.List;
  * Servicio para gestión de devoluciones.
  * ✅ Aplica reglas de negocio, validaciones y conversiones DTO ↔ Entity.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReturnServiceImpl implements ReturnService {
 
+    /** Claves de orden permitidas en el listado paginado (NOT NULL y con índice (clave, id), ver V5) */
+    private static final Set<String> SORT_KEYS = Set.of("id", "dateReturn");
+
     private final ReturnRepository repository;
     private final LoanRepository loanRepository;
     private final InventoryRepository inventoryRepository;
     private final ReturnMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public ReturnResponse create(ReturnRequest request) {
         // Verificar existencia del préstamo
         Loan loan = loanRepository.findById(request.getLoanId())
@@ -48,7 +63,8 @@ public class ReturnServiceImpl implements ReturnService {
         returnEntity.setLoan(loan);
 
         // Guardar y retornar
-        ReturnResponse response = mapper.toResponse(repository.save(returnEntity));
+        Return saved = repository.save(returnEntity);
+        ReturnResponse response = mapper.toResponse(saved);
         
         // Actualizar el préstamo con la devolución y cambiar estado a RETURNED
         loan.setReturnE(returnEntity);
@@ -56,18 +72,12 @@ public class ReturnServiceImpl implements ReturnService {
         loanRepository.save(loan);
 
         // Actualizar inventario: sumar 1 disponible, restar 1 prestada
-        Inventory inventory = loan.getBook().getInventory();
-        if (inventory != null) {
-            inventory.setAvailableCopies(
-                (inventory.getAvailableCopies() != null ? inventory.getAvailableCopies() : 0) + 1
-            );
-            inventory.setBorrowedCopies(
-                Math.max(0, (inventory.getBorrowedCopies() != null ? inventory.getBorrowedCopies() : 0) - 1)
-            );
-            inventory.setLastUpdated(java.time.LocalDateTime.now());
-            inventoryRepository.save(inventory);
+        // UPDATE atómico para no pisar reservas concurrentes de LoanServiceImpl.create
+        if (loan.getBook() != null) {
+            inventoryRepository.releaseCopy(loan.getBook().getId(), LocalDateTime.now());
         }
 
+        eventPublisher.publishEvent(LibraryEvent.returned(LibraryEvent.Action.CREATED, saved.getId(), loan.getBook() != null ? loan.getBook().getId() : null, saved.getDateReturn()));
         return response;
     }
 
@@ -92,28 +102,34 @@ public class ReturnServiceImpl implements ReturnService {
         // El loanId no se actualiza en una actualización (ya está asociado)
         // No hacer nada con request.getLoanId()
 
-        return mapper.toResponse(repository.save(returnEntity));
+        Return saved = repository.save(returnEntity);
+        eventPublisher.publishEvent(LibraryEvent.returned(LibraryEvent.Action.UPDATED, saved.getId(), bookIdOf(saved), saved.getDateReturn()));
+        return mapper.toResponse(saved);
     }
 
     @Override
     public List<ReturnResponse> findAll() {
         // Obtener todas las devoluciones de la base de datos
         List<Return> returns = repository.findAll();
-        
-        // Log para depuración (puedes ver esto en la consola del backend)
-        System.out.println("🔍 Total devoluciones encontradas: " + returns.size());
-        
+
         // Mapear a DTOs
         List<ReturnResponse> responses = returns.stream()
                 .map(mapper::toResponse)
                 .filter(response -> response != null)
                 .toList();
-        
-        System.out.println("🔍 Total respuestas mapeadas: " + responses.size());
-        
+
+        log.debug("Devoluciones encontradas: {}, respuestas mapeadas: {}", returns.size(), responses.size());
+
         return responses;
     }
 
+    @Override
+    public CursorPage<ReturnResponse> findPage(String cursor, Integer size, String sort, String direction) {
+        Sort order = KeysetCursors.sort(sort, direction, SORT_KEYS);
+        Window<Return> window = repository.findBy(KeysetCursors.position(cursor, order), order, KeysetCursors.limit(size));
+        return KeysetCursors.page(window, order, mapper::toResponse);
+    }
+
     @Override
     public ReturnResponse findById(Long id) {
         Return returnEntity = repository.findById(id)
@@ -126,7 +142,11 @@ public class ReturnServiceImpl implements ReturnService {
         Return returnEntity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Devolución no encontrada con ID: " + id));
         repository.delete(returnEntity);
+        eventPublisher.publishEvent(LibraryEvent.returned(LibraryEvent.Action.DELETED, id, bookIdOf(returnEntity), returnEntity.getDateReturn()));
     }
-}
-
 
+    private static Long bookIdOf(Return returnEntity) {
+        Loan loan = returnEntity.getLoan();
+        return loan != null && loan.getBook() != null ? loan.getBook().getId() : null;
+    }
+}
@@ -1,17 +1,30 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.common.KeysetCursors;
 import com.app.emsx.dtos.student.StudentRequest;
 import com.app.emsx.dtos.student.StudentResponse;
 import com.app.emsx.entities.Student;
+import com.app.emsx.events.LibraryEvent;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.StudentMapper;
+import com.app.emsx.repositories.LoanRepository;
 import com.app.emsx.repositories.StudentRepository;
 import com.app.emsx.services.StudentService;
+import com.app.emsx.services.UniquenessGuard;
+import com.app.emsx.validation.LibraryRules;
+import com.app.emsx.validation.ValidationRules;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 🎓 StudentServiceImpl
@@ -23,218 +36,65 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StudentServiceImpl implements StudentService {
 
+    /** Claves de orden permitidas en el listado paginado (NOT NULL y con índice (clave, id), ver V5) */
+    private static final Set<String> SORT_KEYS = Set.of("id", "lastName", "codigo");
+
+    /** Reglas de campo de create y update (todas las violaciones en un solo 409; visible para ValidationBenchmark) */
+    static final ValidationRules<StudentRequest> RULES = ValidationRules.<StudentRequest>builder()
+            .field(StudentRequest::getFirstName, LibraryRules.FIRST_NAME)
+            .field(StudentRequest::getLastName, LibraryRules.LAST_NAME)
+            .field(StudentRequest::getPhone, LibraryRules.PHONE)
+            .field(StudentRequest::getCareer, LibraryRules.CAREER)
+            .field(StudentRequest::getEmail, LibraryRules.EMAIL)
+            .field(StudentRequest::getCodigo, LibraryRules.CODIGO)
+            .build();
+
     private final StudentRepository repository;
+    private final LoanRepository loanRepository;
     private final StudentMapper mapper;
+    private final UniquenessGuard uniquenessGuard;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * ✅ Crear nuevo estudiante
-     * - Verifica que el correo no esté duplicado.
-     * - Verifica que el código no esté duplicado.
+     * - Verifica que el correo, el código y el teléfono no estén duplicados.
      */
     @Override
     public StudentResponse create(StudentRequest request) {
-        // Validar longitud de campos
-        if (request.getFirstName() != null) {
-            if (request.getFirstName().trim().length() < 2) {
-                throw new BusinessRuleException("El nombre debe tener mínimo 2 letras");
-            }
-            if (request.getFirstName().length() > 25) {
-                throw new BusinessRuleException("El nombre no puede tener más de 25 letras");
-            }
-        }
-        if (request.getLastName() != null && request.getLastName().length() > 20) {
-            throw new BusinessRuleException("El apellido no puede tener más de 20 letras");
-        }
-        if (request.getPhone() != null && request.getPhone().length() != 8) {
-            throw new BusinessRuleException("El teléfono debe tener exactamente 8 dígitos");
-        }
-        if (request.getCareer() != null && request.getCareer().length() > 65) {
-            throw new BusinessRuleException("La carrera no puede tener más de 65 letras");
-        }
-        // Validar email: solo caracteres ASCII válidos, parte local 4-30, dominio y extensión máx 10
-        if (request.getEmail() != null) {
-            String email = request.getEmail().trim();
-            if (!email.matches("^[a-zA-Z0-9._]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$")) {
-                throw new BusinessRuleException("El email debe contener solo letras, números, puntos y guiones bajos");
-            }
-            String[] parts = email.split("@");
-            if (parts.length == 2) {
-                String localPart = parts[0];
-                String domainPart = parts[1];
-                String[] domainParts = domainPart.split("\\.");
-                
-                // Validar parte local (antes del @)
-                if (localPart.length() < 4) {
-                    throw new BusinessRuleException("La parte antes del @ debe tener mínimo 4 caracteres");
-                }
-                if (localPart.length() > 30) {
-                    throw new BusinessRuleException("La parte antes del @ debe tener máximo 30 caracteres");
-                }
-                
-                // Validar dominio y extensión
-                if (domainParts.length >= 2) {
-                    // Dominio (después del @ y antes del último punto)
-                    String domain = String.join(".", java.util.Arrays.copyOf(domainParts, domainParts.length - 1));
-                    if (domain.length() > 20) {
-                        throw new BusinessRuleException("El dominio (después del @) debe tener máximo 20 caracteres");
-                    }
-                    
-                    // Extensión (después del último punto)
-                    String extension = domainParts[domainParts.length - 1];
-                    if (extension.length() > 20) {
-                        throw new BusinessRuleException("La extensión (después del último punto) debe tener máximo 20 caracteres");
-                    }
-                }
-            }
-        }
-        // Validar código: exactamente 10 caracteres, 3 letras seguidas de 7 números
-        if (request.getCodigo() != null) {
-            // Validar espacios al inicio o final
-            if (request.getCodigo().startsWith(" ") || request.getCodigo().endsWith(" ")) {
-                throw new BusinessRuleException("El código no puede empezar ni terminar con un espacio en blanco");
-            }
-            String codigo = request.getCodigo().trim();
-            if (codigo.length() != 10) {
-                throw new BusinessRuleException("El código debe tener exactamente 10 caracteres (3 letras y 7 números)");
-            }
-            if (!codigo.matches("^[A-Za-z]{3}[0-9]{7}$")) {
-                throw new BusinessRuleException("El código debe tener 3 letras seguidas de 7 números (ejemplo: ABC1234567)");
-            }
-        }
+        RULES.check(request);
 
-        // Verificar duplicado de email
-        if (repository.existsByEmail(request.getEmail())) {
-            throw new BusinessRuleException("Ya existe un usuario con ese gmail");
-        }
-
-        // Verificar duplicado de codigo
-        if (repository.existsByCodigo(request.getCodigo())) {
-            throw new BusinessRuleException("Ya existe un estudiante con el código: " + request.getCodigo());
-        }
-
-        // Verificar duplicado de teléfono
-        if (repository.existsByPhone(request.getPhone())) {
-            throw new BusinessRuleException("Ya existe un usuario con ese teléfono");
-        }
+        // Verificar duplicados de email, código y teléfono
+        validateUnique(request, null);
 
         // Mapear DTO → Entity
         Student student = mapper.toEntity(request);
 
         // Guardar y retornar
-        return mapper.toResponse(repository.save(student));
+        Student saved = repository.save(student);
+        recordUnique(saved);
+        eventPublisher.publishEvent(LibraryEvent.of(LibraryEvent.Entity.STUDENT, LibraryEvent.Action.CREATED, saved.getId()));
+        return mapper.toResponse(saved);
     }
 
     /**
      * ✅ Actualizar estudiante existente
-     * - Verifica duplicados de email.
-     * - Verifica duplicados de codigo.
+     * - Verifica duplicados de email, código y teléfono.
      */
     @Override
     public StudentResponse update(Long id, StudentRequest request) {
         Student student = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con ID: " + id));
 
-        // Validar longitud de campos
-        if (request.getFirstName() != null) {
-            if (request.getFirstName().trim().length() < 2) {
-                throw new BusinessRuleException("El nombre debe tener mínimo 2 letras");
-            }
-            if (request.getFirstName().length() > 25) {
-                throw new BusinessRuleException("El nombre no puede tener más de 25 letras");
-            }
-        }
-        if (request.getLastName() != null && request.getLastName().length() > 20) {
-            throw new BusinessRuleException("El apellido no puede tener más de 20 letras");
-        }
-        if (request.getPhone() != null) {
-            // Validar espacios al inicio o final
-            if (request.getPhone().startsWith(" ") || request.getPhone().endsWith(" ")) {
-                throw new BusinessRuleException("El teléfono no puede empezar ni terminar con un espacio en blanco");
-            }
-            if (request.getPhone().trim().length() != 8) {
-                throw new BusinessRuleException("El teléfono debe tener exactamente 8 dígitos");
-            }
-        }
-        if (request.getCareer() != null && request.getCareer().length() > 65) {
-            throw new BusinessRuleException("La carrera no puede tener más de 65 letras");
-        }
-        // Validar email: solo caracteres ASCII válidos, parte local 4-30, dominio y extensión máx 10
-        if (request.getEmail() != null) {
-            // Validar espacios al inicio o final
-            if (request.getEmail().startsWith(" ") || request.getEmail().endsWith(" ")) {
-                throw new BusinessRuleException("El email no puede empezar ni terminar con un espacio en blanco");
-            }
-            String email = request.getEmail().trim();
-            if (!email.matches("^[a-zA-Z0-9._]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$")) {
-                throw new BusinessRuleException("El email debe contener solo letras, números, puntos y guiones bajos");
-            }
-            String[] parts = email.split("@");
-            if (parts.length == 2) {
-                String localPart = parts[0];
-                String domainPart = parts[1];
-                String[] domainParts = domainPart.split("\\.");
-                
-                // Validar parte local (antes del @)
-                if (localPart.length() < 4) {
-                    throw new BusinessRuleException("La parte antes del @ debe tener mínimo 4 caracteres");
-                }
-                if (localPart.length() > 30) {
-                    throw new BusinessRuleException("La parte antes del @ debe tener máximo 30 caracteres");
-                }
-                
-                // Validar dominio y extensión
-                if (domainParts.length >= 2) {
-                    // Dominio (después del @ y antes del último punto)
-                    String domain = String.join(".", java.util.Arrays.copyOf(domainParts, domainParts.length - 1));
-                    if (domain.length() > 20) {
-                        throw new BusinessRuleException("El dominio (después del @) debe tener máximo 20 caracteres");
-                    }
-                    
-                    // Extensión (después del último punto)
-                    String extension = domainParts[domainParts.length - 1];
-                    if (extension.length() > 20) {
-                        throw new BusinessRuleException("La extensión (después del último punto) debe tener máximo 20 caracteres");
-                    }
-                }
-            }
-        }
-        // Validar código: exactamente 10 caracteres, 3 letras seguidas de 7 números
-        if (request.getCodigo() != null) {
-            // Validar espacios al inicio o final
-            if (request.getCodigo().startsWith(" ") || request.getCodigo().endsWith(" ")) {
-                throw new BusinessRuleException("El código no puede empezar ni terminar con un espacio en blanco");
-            }
-            String codigo = request.getCodigo().trim();
-            if (codigo.length() != 10) {
-                throw new BusinessRuleException("El código debe tener exactamente 10 caracteres (3 letras y 7 números)");
-            }
-            if (!codigo.matches("^[A-Za-z]{3}[0-9]{7}$")) {
-                throw new BusinessRuleException("El código debe tener 3 letras seguidas de 7 números (ejemplo: ABC1234567)");
-            }
-        }
-
-        // Validar email duplicado
-        if (!student.getEmail().equals(request.getEmail()) &&
-                repository.existsByEmail(request.getEmail())) {
-            throw new BusinessRuleException("Ya existe un usuario con ese gmail");
-        }
-
-        // Validar codigo duplicado
-        if (!student.getCodigo().equals(request.getCodigo()) &&
-                repository.existsByCodigo(request.getCodigo())) {
-            throw new BusinessRuleException("Ya existe un estudiante con el código: " + request.getCodigo());
-        }
+        RULES.check(request);
 
-        // Validar teléfono duplicado
-        if (student.getPhone() != null && request.getPhone() != null &&
-                !student.getPhone().equals(request.getPhone()) &&
-                repository.existsByPhone(request.getPhone())) {
-            throw new BusinessRuleException("Ya existe un usuario con ese teléfono");
-        }
+        // Validar duplicados de email, código y teléfono (solo los valores que cambian)
+        validateUnique(request, student);
 
         mapper.updateEntityFromRequest(request, student);
 
-        return mapper.toResponse(repository.save(student));
+        Student saved = repository.save(student);
+        recordUnique(saved);
+        return mapper.toResponse(saved);
     }
 
     /**
@@ -248,6 +108,13 @@ public class StudentServiceImpl implements StudentService {
                 .toList();
     }
 
+    @Override
+    public CursorPage<StudentResponse> findPage(String cursor, Integer size, String sort, String direction) {
+        Sort order = KeysetCursors.sort(sort, direction, SORT_KEYS);
+        Window<Student> window = repository.findBy(KeysetCursors.position(cursor, order), order, KeysetCursors.limit(size));
+        return KeysetCursors.page(window, order, mapper::toResponse);
+    }
+
     /**
      * ✅ Buscar estudiante por ID
      */
@@ -267,23 +134,72 @@ public class StudentServiceImpl implements StudentService {
         Student student = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con ID: " + id));
 
-        // Forzar carga de préstamos (lazy loading)
-        if (student.getLoans() != null) {
-            int loanCount = student.getLoans().size(); // Esto fuerza la carga de la colección
-            if (loanCount > 0) {
-                // Verificar si hay préstamos activos
-                boolean hasActiveLoans = student.getLoans().stream()
-                        .anyMatch(loan -> loan.getState() != null && 
-                                (loan.getState().equalsIgnoreCase("ACTIVE") || 
-                                 loan.getState().equalsIgnoreCase("OVERDUE")));
-                
-                if (hasActiveLoans) {
-                    throw new BusinessRuleException("Este estudiante se encuentra en un préstamo activo. Debe ser devuelto primero.");
-                }
-            }
+        // Verificar préstamos activos con una consulta EXISTS (sin cargar la colección de préstamos)
+        if (loanRepository.existsActiveByStudent(id, LoanRepository.ACTIVE_STATES)) {
+            throw new BusinessRuleException("Este estudiante se encuentra en un préstamo activo. Debe ser devuelto primero.");
         }
 
         repository.delete(student);
+        eventPublisher.publishEvent(LibraryEvent.of(LibraryEvent.Entity.STUDENT, LibraryEvent.Action.DELETED, id));
+    }
+
+    /**
+     * ✅ Email, código y teléfono únicos
+     * - Los valores que el filtro de unicidad descarta no se consultan
+     * - El resto se verifica en una sola consulta (antes: una por campo)
+     * - En update (current != null) los valores que no cambian no se verifican
+     */
+    private void validateUnique(StudentRequest request, Student current) {
+        String email = candidate(UniquenessGuard.Key.STUDENT_EMAIL, request.getEmail(),
+                current != null ? current.getEmail() : null);
+        String codigo = candidate(UniquenessGuard.Key.STUDENT_CODIGO, request.getCodigo(),
+                current != null ? current.getCodigo() : null);
+        String phone = candidate(UniquenessGuard.Key.STUDENT_PHONE, request.getPhone(),
+                current != null ? current.getPhone() : null);
+        if (email == null && codigo == null && phone == null) {
+            return;
+        }
+
+        // Con los índices UNIQUE hay a lo sumo un estudiante por campo
+        List<Object[]> conflicts = repository.findUniqueConflicts(
+                email, codigo, phone, current != null ? current.getId() : null, Limit.of(3));
+        List<String> violations = new ArrayList<>(3);
+        if (matches(conflicts, 0, email)) {
+            violations.add("Ya existe un usuario con ese gmail");
+        }
+        if (matches(conflicts, 1, codigo)) {
+            violations.add("Ya existe un estudiante con el código: " + request.getCodigo());
+        }
+        if (matches(conflicts, 2, phone)) {
+            violations.add("Ya existe un usuario con ese teléfono");
+        }
+        if (!violations.isEmpty()) {
+            throw new BusinessRuleException(String.join("; ", violations));
+        }
+    }
+
+    /** Valor a consultar en la BD, o null si no cambió o el filtro asegura que no existe */
+    private String candidate(UniquenessGuard.Key key, String value, String currentValue) {
+        if (value == null || value.equals(currentValue)) {
+            return null;
+        }
+        return uniquenessGuard.mightExist(key, value) ? value : null;
+    }
+
+    /** Igual que la colación de MySQL: sin distinguir mayúsculas ni espacios alrededor */
+    private static boolean matches(List<Object[]> rows, int column, String value) {
+        if (value == null) return false;
+        for (Object[] row : rows) {
+            if (row[column] instanceof String existing && existing.trim().equalsIgnoreCase(value.trim())) {
+                return true;
+            }
+        }
+        return false;
     }
-}
 
+    private void recordUnique(Student student) {
+        uniquenessGuard.record(UniquenessGuard.Key.STUDENT_EMAIL, student.getEmail());
+        uniquenessGuard.record(UniquenessGuard.Key.STUDENT_CODIGO, student.getCodigo());
+        uniquenessGuard.record(UniquenessGuard.Key.STUDENT_PHONE, student.getPhone());
+    }
+}
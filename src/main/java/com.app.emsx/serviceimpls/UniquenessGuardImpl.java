@@ -0,0 +1,228 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.common.BloomFilter;
+import com.app.emsx.services.UniquenessGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🛡️ UniquenessGuardImpl
+ * -----------------------------------------------------
+ * ✅ Un Bloom filter por columna única (email/código/teléfono de estudiantes, email de autores y usuarios)
+ * ✅ "Seguro no existe" evita la consulta a la BD; "quizás existe" se confirma en la BD
+ * ✅ Se carga al iniciar por bloques (keyset por id) y se actualiza con cada alta o cambio confirmado
+ * ✅ Las bajas no se quitan (un valor borrado solo cuesta una consulta); al superar la capacidad se reconstruye
+ * ✅ Los índices UNIQUE de la BD siguen siendo la autoridad final (p. ej. altas de otra instancia)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UniquenessGuardImpl implements UniquenessGuard {
+
+    private static final int LOAD_CHUNK = 10_000;
+
+    /** Tabla y columnas que alimentan cada filtro (en el mismo orden que keys) */
+    private record Source(String table, List<String> columns, List<Key> keys) { }
+
+    private static final List<Source> SOURCES = List.of(
+            new Source("students", List.of("email", "codigo", "phone"),
+                    List.of(Key.STUDENT_EMAIL, Key.STUDENT_CODIGO, Key.STUDENT_PHONE)),
+            new Source("authors", List.of("email"), List.of(Key.AUTHOR_EMAIL)),
+            new Source("users", List.of("email"), List.of(Key.USER_EMAIL)));
+
+    private record Entry(Key key, String value) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${uniqueness.enabled:true}")
+    private boolean enabled;
+
+    @Value("${uniqueness.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${uniqueness.min-capacity:100000}")
+    private long minCapacity;
+
+    /** Altas y reemplazo de filtros en exclusiva; las consultas leen el mapa volatile sin lock */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile Map<Key, BloomFilter> filters = Map.of();
+    private final Map<Key, AtomicLong> sizes = new EnumMap<>(Key.class);
+    /** Valores registrados durante una reconstrucción; se agregan a los filtros nuevos */
+    private List<Entry> pending;
+    private final Map<Key, Counter> skippedCounters = new EnumMap<>(Key.class);
+    private final Map<Key, Counter> databaseCounters = new EnumMap<>(Key.class);
+
+    @PostConstruct
+    void registerMetrics() {
+        for (Key key : Key.values()) {
+            sizes.put(key, new AtomicLong());
+            skippedCounters.put(key, counter(key, "skipped"));
+            databaseCounters.put(key, counter(key, "database"));
+        }
+    }
+
+    private Counter counter(Key key, String result) {
+        return Counter.builder("uniqueness.checks")
+                .description("Verificaciones de unicidad: resueltas en memoria (skipped) o consultadas en la BD (database)")
+                .tag("key", key.name().toLowerCase(Locale.ROOT))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(Key key, String value) {
+        if (value == null) return false;
+        BloomFilter filter = enabled ? filters.get(key) : null;
+        // Sin cargar (o deshabilitado) no se puede descartar nada: se consulta la BD
+        if (filter != null && !filter.mightContain(normalize(value))) {
+            skippedCounters.get(key).increment();
+            return false;
+        }
+        databaseCounters.get(key).increment();
+        return true;
+    }
+
+    @Override
+    public void record(Key key, String value) {
+        if (!enabled || value == null) return;
+        String normalized = normalize(value);
+        boolean full;
+        lock.lock();
+        try {
+            BloomFilter filter = filters.get(key);
+            if (filter != null) {
+                filter.put(normalized);
+            }
+            if (pending != null) {
+                pending.add(new Entry(key, normalized));
+            }
+            full = filter != null && sizes.get(key).incrementAndGet() > filter.capacity();
+        } finally {
+            lock.unlock();
+        }
+        if (full && rebuildScheduled.compareAndSet(false, true)) {
+            log.info("Filtro de unicidad {} lleno: reconstruyendo con más capacidad", key);
+            CompletableFuture.runAsync(this::rebuild).exceptionally(e -> {
+                log.warn("No se pudieron reconstruir los filtros de unicidad: {}", e.getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * ✅ Lee las columnas únicas por bloques y reemplaza todos los filtros de una vez
+     * (cada filtro con capacidad para el doble de las filas actuales)
+     */
+    @Override
+    public void rebuild() {
+        if (!enabled) return;
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            Map<Key, BloomFilter> fresh = new EnumMap<>(Key.class);
+            Map<Key, Long> rows = new EnumMap<>(Key.class);
+            for (Source source : SOURCES) {
+                load(source, fresh, rows);
+            }
+
+            lock.lock();
+            try {
+                for (Entry entry : pending) {
+                    fresh.get(entry.key()).put(entry.value());
+                }
+                rows.forEach((key, count) -> sizes.get(key).set(count));
+                pending.forEach(entry -> sizes.get(entry.key()).incrementAndGet());
+                pending = null;
+                filters = fresh;
+            } finally {
+                lock.unlock();
+            }
+            long bytes = fresh.values().stream().mapToLong(BloomFilter::sizeInBytes).sum();
+            log.info("Filtros de unicidad cargados: {} ({} KB) en {} ms",
+                    rows, bytes / 1024, System.currentTimeMillis() - start);
+        } finally {
+            // Si la carga falló, los filtros anteriores siguen en uso
+            lock.lock();
+            try {
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+            rebuildScheduled.set(false);
+            rebuildLock.unlock();
+        }
+    }
+
+    private void load(Source source, Map<Key, BloomFilter> fresh, Map<Key, Long> rows) {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + source.table(), Long.class);
+        long capacity = Math.max(minCapacity, (total == null ? 0 : total) * 2);
+        BloomFilter[] targets = new BloomFilter[source.keys().size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = new BloomFilter(capacity, falsePositiveRate);
+            fresh.put(source.keys().get(i), targets[i]);
+        }
+
+        String sql = "SELECT id, " + String.join(", ", source.columns()) + " FROM " + source.table()
+                + " WHERE id > ? ORDER BY id LIMIT ?";
+        long[] lastId = {0};
+        long loaded = 0;
+        while (true) {
+            int[] count = {0};
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                lastId[0] = rs.getLong(1);
+                for (int i = 0; i < targets.length; i++) {
+                    String value = rs.getString(i + 2);
+                    if (value != null) {
+                        targets[i].put(normalize(value));
+                    }
+                }
+                count[0]++;
+            }, lastId[0], LOAD_CHUNK);
+            loaded += count[0];
+            if (count[0] < LOAD_CHUNK) break;
+        }
+        for (Key key : source.keys()) {
+            rows.put(key, loaded);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Sin filtros todas las verificaciones van a la BD, como antes
+            log.warn("No se pudieron cargar los filtros de unicidad: {}", e.getMessage());
+        }
+    }
+
+    /** Igual que las colaciones de MySQL: sin distinguir mayúsculas ni espacios alrededor */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.dtos.auth.*;
 
 /**
@@ -1,5 +1,6 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.dtos.author.AuthorRequest;
 import com.app.emsx.dtos.author.AuthorResponse;
 
@@ -11,6 +12,7 @@ public interface AuthorService {
     void delete(Long id);
     AuthorResponse findById(Long id);
     List<AuthorResponse> findAll();
+    CursorPage<AuthorResponse> findPage(String cursor, Integer size, String sort, String direction);
 }
 
 
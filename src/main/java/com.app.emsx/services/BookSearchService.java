@@ -0,0 +1,12 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.book.BookSearchResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookSearchService {
+    List<BookSearchResponse> search(String query, Integer limit);
+    void index(Collection<Long> bookIds);
+    void rebuild();
+}
@@ -1,5 +1,6 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.dtos.book.BookRequest;
 import com.app.emsx.dtos.book.BookResponse;
 
@@ -11,6 +12,7 @@ public interface BookService {
     void delete(Long id);
     BookResponse findById(Long id);
     List<BookResponse> findAll();
+    CursorPage<BookResponse> findPage(String cursor, Integer size, String sort, String direction);
 }
 
 
@@ -0,0 +1,9 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.catalog.CatalogImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface CatalogImportService {
+    CatalogImportJobResponse submit(MultipartFile file, String format);
+    CatalogImportJobResponse findJob(String id);
+}
@@ -0,0 +1,8 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse;
+
+public interface DashboardService {
+    DashboardStatsResponse getStats();
+    void reconcile();
+}
@@ -0,0 +1,8 @@
+package com.app.emsx.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardStreamService {
+    SseEmitter subscribe();
+    int subscriberCount();
+}
@@ -0,0 +1,12 @@
+package com.app.emsx.services;
+
+import com.app.emsx.common.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+public interface ExportService {
+    StreamingResponseBody exportLoans(ExportFormat format, LocalDate from, LocalDate to, boolean gzip);
+    StreamingResponseBody exportReturns(ExportFormat format, LocalDate from, LocalDate to, boolean gzip);
+    StreamingResponseBody exportInventory(ExportFormat format, boolean gzip);
+}
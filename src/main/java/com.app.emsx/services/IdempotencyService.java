@@ -0,0 +1,22 @@
+package com.app.emsx.services;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /** Cabecera de la solicitud con la clave elegida por el cliente */
+    String KEY_HEADER = "Idempotency-Key";
+
+    /** Cabecera de respuesta presente (true) cuando la respuesta es una repetición guardada */
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /** Resultado de la operación y si salió del almacén en lugar de ejecutarse */
+    record Result<T>(T value, boolean replayed) { }
+
+    /**
+     * Sin clave ejecuta la acción tal cual. Con clave: la primera solicitud se ejecuta y su respuesta se guarda;
+     * las repeticiones con la misma solicitud reciben esa respuesta sin ejecutar nada.
+     * La misma clave con otra solicitud, o mientras la original sigue en curso, lanza BusinessRuleException.
+     */
+    <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,32 @@
+package com.app.emsx.services;
+
+/**
+ * Almacén de claves Idempotency-Key (implementación en memoria por defecto; idempotency.store elige otra).
+ * Una implementación en BD puede usar una tabla con la clave como PRIMARY KEY: reserve = INSERT
+ * (clave duplicada → devolver la fila existente), complete = UPDATE, release = DELETE, y un borrado periódico por TTL.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Estado de una clave: huella de la solicitud y respuesta en JSON (null = la solicitud original sigue en curso)
+     */
+    record Entry(String fingerprint, String responseJson) {
+
+        public static Entry pending(String fingerprint) {
+            return new Entry(fingerprint, null);
+        }
+
+        public boolean completed() {
+            return responseJson != null;
+        }
+    }
+
+    /** Reserva la clave de forma atómica: null si quedó reservada; si ya existía, su entrada actual */
+    Entry reserve(String key, Entry pending);
+
+    /** Guarda la respuesta de una clave reservada (expira según el TTL del almacén) */
+    void complete(String key, Entry completed);
+
+    /** Libera una clave reservada cuya solicitud falló (un reintento vuelve a ejecutarla) */
+    void release(String key);
+}
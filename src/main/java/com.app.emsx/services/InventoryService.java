@@ -1,5 +1,6 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.dtos.inventory.InventoryRequest;
 import com.app.emsx.dtos.inventory.InventoryResponse;
 
@@ -11,6 +12,7 @@ public interface InventoryService {
     void delete(Long id);
     InventoryResponse findById(Long id);
     List<InventoryResponse> findAll();
+    CursorPage<InventoryResponse> findPage(String cursor, Integer size, String sort, String direction);
 }
 
 
@@ -1,5 +1,7 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
+import com.app.emsx.dtos.loan.LoanBatchResponse;
 import com.app.emsx.dtos.loan.LoanRequest;
 import com.app.emsx.dtos.loan.LoanResponse;
 
@@ -7,10 +9,12 @@ import java.util.List;
 
 public interface LoanService {
     LoanResponse create(LoanRequest request);
+    LoanBatchResponse createBatch(List<LoanRequest> requests);
     LoanResponse update(Long id, LoanRequest request);
     void delete(Long id);
     LoanResponse findById(Long id);
     List<LoanResponse> findAll();
+    CursorPage<LoanResponse> findPage(String cursor, Integer size, String sort, String direction);
 }
 
 
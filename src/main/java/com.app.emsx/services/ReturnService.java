@@ -1,5 +1,6 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.dtos.return_.ReturnRequest;
 import com.app.emsx.dtos.return_.ReturnResponse;
 
@@ -11,6 +12,7 @@ public interface ReturnService {
     void delete(Long id);
     ReturnResponse findById(Long id);
     List<ReturnResponse> findAll();
+    CursorPage<ReturnResponse> findPage(String cursor, Integer size, String sort, String direction);
 }
 
 
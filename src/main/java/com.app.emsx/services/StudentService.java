@@ -1,5 +1,6 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.CursorPage;
 import com.app.emsx.dtos.student.StudentRequest;
 import com.app.emsx.dtos.student.StudentResponse;
 
@@ -11,6 +12,7 @@ public interface StudentService {
     void delete(Long id);
     StudentResponse findById(Long id);
     List<StudentResponse> findAll();
+    CursorPage<StudentResponse> findPage(String cursor, Integer size, String sort, String direction);
 }
 
 
@@ -0,0 +1,15 @@
+package com.app.emsx.services;
+
+public interface UniquenessGuard {
+
+    /** Columnas únicas protegidas (cada una con su propio filtro) */
+    enum Key { STUDENT_EMAIL, STUDENT_CODIGO, STUDENT_PHONE, AUTHOR_EMAIL, USER_EMAIL }
+
+    /** false = el valor seguro no existe (no hace falta consultar la BD); true = consultar la BD */
+    boolean mightExist(Key key, String value);
+
+    /** Registrar un valor guardado (llamar después de save) */
+    void record(Key key, String value);
+
+    void rebuild();
+}
@@ -0,0 +1,10 @@
+package com.app.emsx.validation;
+
+/**
+ * ✅ Regla sobre un campo: devuelve el mensaje de la violación o null si el valor es válido
+ * (los mensajes fijos son constantes: validar un valor correcto no crea objetos)
+ */
+@FunctionalInterface
+public interface FieldRule<V> {
+    String check(V value);
+}
@@ -0,0 +1,153 @@
+package com.app.emsx.validation;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 🧩 FieldRules
+ * -----------------------------------------------------
+ * Reglas genéricas para armar ValidationRules.
+ * ✅ Recorridos de un solo paso sobre los caracteres, sin regex, trim() ni split()
+ * ✅ Todas aceptan null salvo required (la obligatoriedad la cubre @NotBlank o required)
+ */
+public final class FieldRules {
+
+    private FieldRules() { }
+
+    public static FieldRule<String> required(String message) {
+        return value -> value == null || value.isBlank() ? message : null;
+    }
+
+    public static FieldRule<String> maxLength(int max, String message) {
+        return value -> value != null && value.length() > max ? message : null;
+    }
+
+    /** Longitud sin contar espacios al inicio ni al final */
+    public static FieldRule<String> minTrimmedLength(int min, String message) {
+        return value -> value != null && trimmedLength(value) < min ? message : null;
+    }
+
+    public static FieldRule<String> trimmedLength(int length, String message) {
+        return value -> value != null && trimmedLength(value) != length ? message : null;
+    }
+
+    public static FieldRule<String> lengthBetween(int min, int max, String message) {
+        return value -> value != null && (value.length() < min || value.length() > max) ? message : null;
+    }
+
+    public static FieldRule<String> noSurroundingSpaces(String message) {
+        return value -> value != null && !value.isEmpty()
+                && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ') ? message : null;
+    }
+
+    /** Equivale a ^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\s]+$ */
+    public static FieldRule<String> letters(String message) {
+        return value -> value != null && !isLetters(value) ? message : null;
+    }
+
+    /** Equivale a ^[0-9]+$ */
+    public static FieldRule<String> digits(String message) {
+        return value -> value != null && !isDigits(value) ? message : null;
+    }
+
+    public static FieldRule<Integer> atLeast(int min, String message) {
+        return value -> value != null && value < min ? message : null;
+    }
+
+    public static FieldRule<Integer> atMost(int max, String message) {
+        return value -> value != null && value > max ? message : null;
+    }
+
+    public static FieldRule<LocalDate> notBefore(LocalDate limit, String message) {
+        return value -> value.isBefore(limit) ? message : null;
+    }
+
+    /** Compara contra la fecha del día en que se valida, no la del arranque */
+    public static FieldRule<LocalDate> notFuture(String message) {
+        return value -> value.isAfter(LocalDate.now()) ? message : null;
+    }
+
+    /**
+     * ✅ Fecha ISO (yyyy-MM-dd) en texto; en blanco no se valida
+     * - Formato inválido → "Formato de fecha inválido: <valor>"
+     * - Luego la primera regla de fecha que falle
+     */
+    @SafeVarargs
+    public static FieldRule<String> isoDate(FieldRule<LocalDate>... dateRules) {
+        FieldRule<LocalDate>[] rules = dateRules.clone();
+        return value -> {
+            if (value == null || value.isBlank()) return null;
+            LocalDate date;
+            try {
+                date = LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                return "Formato de fecha inválido: " + value;
+            }
+            for (FieldRule<LocalDate> rule : rules) {
+                String message = rule.check(date);
+                if (message != null) return message;
+            }
+            return null;
+        };
+    }
+
+    /**
+     * ✅ Varias reglas como una sola: devuelve la primera violación
+     */
+    @SafeVarargs
+    public static <V> FieldRule<V> all(FieldRule<? super V>... fieldRules) {
+        FieldRule<? super V>[] rules = fieldRules.clone();
+        return value -> {
+            for (FieldRule<? super V> rule : rules) {
+                String message = rule.check(value);
+                if (message != null) return message;
+            }
+            return null;
+        };
+    }
+
+    public static int trimmedLength(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        return end - start;
+    }
+
+    public static boolean isLetters(String value) {
+        if (value.isEmpty()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isWhitespace(c)) {
+                switch (c) {
+                    case 'á', 'é', 'í', 'ó', 'ú', 'Á', 'É', 'Í', 'Ó', 'Ú', 'ñ', 'Ñ', 'ü', 'Ü' -> { }
+                    default -> {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public static boolean isDigits(String value) {
+        if (value.isEmpty()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Los mismos caracteres que \s en java.util.regex */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
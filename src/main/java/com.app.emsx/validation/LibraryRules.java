@@ -0,0 +1,132 @@
+package com.app.emsx.validation;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static com.app.emsx.validation.FieldRules.*;
+
+/**
+ * 📚 LibraryRules
+ * -----------------------------------------------------
+ * Reglas de campo compartidas por autores, estudiantes, libros y la importación de catálogo.
+ * ✅ Email, código y teléfono con verificadores de un solo recorrido (mismos mensajes que antes)
+ */
+public final class LibraryRules {
+
+    private LibraryRules() { }
+
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String EMAIL_FORMAT = "El email debe contener solo letras, números, puntos y guiones bajos";
+
+    // ===== Personas (autores y estudiantes) =====
+
+    public static final FieldRule<String> FIRST_NAME = all(
+            minTrimmedLength(2, "El nombre debe tener mínimo 2 letras"),
+            maxLength(25, "El nombre no puede tener más de 25 letras"));
+
+    public static final FieldRule<String> LAST_NAME =
+            maxLength(20, "El apellido no puede tener más de 20 letras");
+
+    public static final FieldRule<String> EMAIL = all(
+            noSurroundingSpaces("El email no puede empezar ni terminar con un espacio en blanco"),
+            value -> value == null ? null : checkEmail(value.trim()));
+
+    // ===== Estudiantes =====
+
+    public static final FieldRule<String> PHONE = all(
+            noSurroundingSpaces("El teléfono no puede empezar ni terminar con un espacio en blanco"),
+            trimmedLength(8, "El teléfono debe tener exactamente 8 dígitos"),
+            value -> value == null || isDigits(value.trim()) ? null : "El teléfono solo debe contener números, no caracteres");
+
+    public static final FieldRule<String> CODIGO = all(
+            noSurroundingSpaces("El código no puede empezar ni terminar con un espacio en blanco"),
+            trimmedLength(10, "El código debe tener exactamente 10 caracteres (3 letras y 7 números)"),
+            value -> value == null || isCodigo(value.trim()) ? null
+                    : "El código debe tener 3 letras seguidas de 7 números (ejemplo: ABC1234567)");
+
+    public static final FieldRule<String> CAREER =
+            maxLength(65, "La carrera no puede tener más de 65 letras");
+
+    // ===== Autores =====
+
+    /** Entre 1500 y hoy, y el autor debe tener al menos 5 años */
+    public static final FieldRule<String> BIRTH_DATE = isoDate(
+            notFuture("La fecha de nacimiento no puede ser futura"),
+            notBefore(LocalDate.of(1500, 1, 1), "La fecha de nacimiento no puede ser anterior al año 1500"),
+            date -> {
+                LocalDate minimumBirthDate = LocalDate.now().minusYears(5);
+                return date.isAfter(minimumBirthDate)
+                        ? "No se puede crear un autor menor de 5 años. La fecha de nacimiento debe ser anterior a "
+                                + minimumBirthDate.format(DISPLAY_DATE)
+                        : null;
+            });
+
+    // ===== Libros =====
+
+    public static final FieldRule<String> TITLE = all(
+            maxLength(20, "El título no puede tener más de 20 caracteres"),
+            letters("El título solo debe contener letras, no números ni símbolos"));
+
+    public static final FieldRule<String> GENRE = all(
+            maxLength(20, "El género no puede tener más de 20 caracteres"),
+            letters("El género solo debe contener letras, no números ni símbolos"));
+
+    public static final FieldRule<String> EDITORIAL = all(
+            maxLength(20, "La editorial no puede tener más de 20 caracteres"),
+            letters("La editorial solo debe contener letras, no números ni símbolos"));
+
+    /** Entre 868 (primer libro impreso conocido) y hoy; la comparación con el autor la hace el servicio */
+    public static final FieldRule<String> PUBLICATION_DATE = isoDate(
+            notBefore(LocalDate.of(868, 1, 1), "La fecha de publicación no puede ser anterior al año 868 (primer libro impreso conocido)"),
+            notFuture("La fecha de publicación no puede ser futura"));
+
+    // ===== Verificadores =====
+
+    /**
+     * ✅ Email en un recorrido: equivale a ^[a-zA-Z0-9._]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$
+     * más los límites de longitud de parte local (4-30), dominio (máx 20) y extensión (máx 20)
+     */
+    public static String checkEmail(String email) {
+        int at = -1;
+        int lastDot = -1;
+        boolean extensionLetters = false;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) return EMAIL_FORMAT;
+                at = i;
+            } else if (at < 0) {
+                if (!isAsciiLetter(c) && !isDigit(c) && c != '.' && c != '_') return EMAIL_FORMAT;
+            } else if (c == '.') {
+                lastDot = i;
+                extensionLetters = true;
+            } else if (isAsciiLetter(c)) {
+                // sigue siendo candidata a extensión
+            } else if (isDigit(c) || c == '-') {
+                extensionLetters = false;
+            } else {
+                return EMAIL_FORMAT;
+            }
+        }
+        int extensionLength = email.length() - lastDot - 1;
+        if (at < 1 || lastDot < at + 2 || !extensionLetters || extensionLength < 2) return EMAIL_FORMAT;
+
+        if (at < 4) return "La parte antes del @ debe tener mínimo 4 caracteres";
+        if (at > 30) return "La parte antes del @ debe tener máximo 30 caracteres";
+        if (lastDot - at - 1 > 20) return "El dominio (después del @) debe tener máximo 20 caracteres";
+        if (extensionLength > 20) return "La extensión (después del último punto) debe tener máximo 20 caracteres";
+        return null;
+    }
+
+    /** Equivale a ^[A-Za-z]{3}[0-9]{7}$ */
+    public static boolean isCodigo(String value) {
+        if (value.length() != 10) return false;
+        for (int i = 0; i < 3; i++) {
+            if (!isAsciiLetter(value.charAt(i))) return false;
+        }
+        for (int i = 3; i < 10; i++) {
+            if (!isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+}
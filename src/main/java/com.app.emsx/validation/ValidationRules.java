@@ -0,0 +1,120 @@
+package com.app.emsx.validation;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 📏 ValidationRules
+ * -----------------------------------------------------
+ * Reglas declarativas de un DTO, armadas una sola vez (constante estática del servicio).
+ * ✅ Un solo recorrido informa todas las violaciones, no solo la primera
+ * ✅ Por campo se detiene en la primera regla que falla (evita "muy largo" + "formato inválido" del mismo valor)
+ * ✅ Sin streams ni iteradores: la lista de mensajes se crea solo si hay violaciones
+ *
+ * Ej:
+ *   ValidationRules.<AuthorRequest>builder()
+ *       .field(AuthorRequest::getEmail, LibraryRules.EMAIL)
+ *       .build()
+ *       .check(request);
+ */
+public final class ValidationRules<T> {
+
+    private final Function<T, ?>[] getters;
+    private final FieldRule<Object>[][] rules;
+    private final boolean[] skipBlank;
+
+    private ValidationRules(Builder<T> builder) {
+        int size = builder.getters.size();
+        this.getters = toArray(builder.getters, Function.class);
+        this.rules = toArray(builder.rules, FieldRule[].class);
+        this.skipBlank = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            skipBlank[i] = builder.skipBlank.get(i);
+        }
+    }
+
+    /** Arreglo de un tipo genérico: Java no permite new Function<T, ?>[n] */
+    @SuppressWarnings("unchecked")
+    private static <E> E[] toArray(List<E> list, Class<?> componentType) {
+        return list.toArray((E[]) Array.newInstance(componentType, list.size()));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * ✅ Todas las violaciones, en el orden en que se declararon los campos (lista vacía si no hay)
+     */
+    public List<String> validate(T target) {
+        List<String> violations = null;
+        for (int i = 0; i < getters.length; i++) {
+            Object value = getters[i].apply(target);
+            if (skipBlank[i] && (value == null || (value instanceof String text && text.isBlank()))) {
+                continue;
+            }
+            FieldRule<Object>[] fieldRules = rules[i];
+            for (FieldRule<Object> rule : fieldRules) {
+                String message = rule.check(value);
+                if (message != null) {
+                    if (violations == null) {
+                        violations = new ArrayList<>(4);
+                    }
+                    violations.add(message);
+                    break;
+                }
+            }
+        }
+        return violations == null ? List.of() : violations;
+    }
+
+    /**
+     * ✅ Lanza BusinessRuleException (409) con todas las violaciones separadas por "; "
+     */
+    public void check(T target) {
+        List<String> violations = validate(target);
+        if (!violations.isEmpty()) {
+            throw new BusinessRuleException(String.join("; ", violations));
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<Function<T, ?>> getters = new ArrayList<>();
+        private final List<FieldRule<Object>[]> rules = new ArrayList<>();
+        private final List<Boolean> skipBlank = new ArrayList<>();
+
+        private Builder() { }
+
+        /**
+         * Campo validado siempre: cada regla decide qué hacer con null (salvo required, lo aceptan)
+         */
+        @SafeVarargs
+        public final <V> Builder<T> field(Function<T, V> getter, FieldRule<? super V>... fieldRules) {
+            return add(getter, false, fieldRules);
+        }
+
+        /**
+         * Campo opcional: si viene null o en blanco no se valida
+         */
+        @SafeVarargs
+        public final <V> Builder<T> optionalField(Function<T, V> getter, FieldRule<? super V>... fieldRules) {
+            return add(getter, true, fieldRules);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> Builder<T> add(Function<T, V> getter, boolean optional, FieldRule<? super V>[] fieldRules) {
+            getters.add(getter);
+            rules.add((FieldRule<Object>[]) fieldRules.clone());
+            skipBlank.add(optional);
+            return this;
+        }
+
+        public ValidationRules<T> build() {
+            return new ValidationRules<>(this);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+-- =====================================================
+-- V1: esquema base (equivale al que generaba ddl-auto=update)
+-- Los nombres de restricciones son los que asignaba Hibernate, así una base
+-- existente tomada como baseline queda idéntica a una creada desde cero.
+-- =====================================================
+
+CREATE TABLE id_sequences (
+    seq_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (seq_name)
+) ENGINE=InnoDB;
+
+INSERT INTO id_sequences (seq_name, next_val) VALUES
+    ('authors', 0),
+    ('books', 0),
+    ('inventory', 0),
+    ('loans', 0),
+    ('returns', 0),
+    ('students', 0),
+    ('users', 0);
+
+CREATE TABLE authors (
+    id BIGINT NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    email VARCHAR(255),
+    birth_date DATE,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE books (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    genre VARCHAR(255),
+    publication_date DATE,
+    editorial VARCHAR(255),
+    author_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE inventory (
+    id BIGINT NOT NULL,
+    total_copies INTEGER,
+    available_copies INTEGER,
+    borrowed_copies INTEGER,
+    observations VARCHAR(255),
+    last_updated DATETIME(6),
+    book_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE students (
+    id BIGINT NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    career VARCHAR(255),
+    codigo VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE loans (
+    id BIGINT NOT NULL,
+    state VARCHAR(255),
+    observations VARCHAR(255),
+    date_loan DATE,
+    amount FLOAT(53) NOT NULL,
+    due_date DATE,
+    provisional_penalty FLOAT(53),
+    student_id BIGINT,
+    book_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE returns (
+    id BIGINT NOT NULL,
+    date_return DATE,
+    observations VARCHAR(255),
+    penalty FLOAT(53) NOT NULL,
+    loan_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL,
+    firstname VARCHAR(255) NOT NULL,
+    lastname VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+ALTER TABLE inventory ADD CONSTRAINT UK40q1gt456vvwep3cooa7yf7gc UNIQUE (book_id);
+ALTER TABLE returns ADD CONSTRAINT UK6isv1d86br45ymlkan58q34yu UNIQUE (loan_id);
+ALTER TABLE students ADD CONSTRAINT UKm3abjq2sl8p4m5f84n0pp5hrp UNIQUE (codigo);
+ALTER TABLE users ADD CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email);
+
+ALTER TABLE books ADD CONSTRAINT FKfjixh2vym2cvfj3ufxj91jem7
+    FOREIGN KEY (author_id) REFERENCES authors (id);
+ALTER TABLE inventory ADD CONSTRAINT FKhqmqb0lhe7i8lnvexhw50xpi5
+    FOREIGN KEY (book_id) REFERENCES books (id);
+ALTER TABLE loans ADD CONSTRAINT FKokwvlrv6o4i4h3le3bwhe6kie
+    FOREIGN KEY (book_id) REFERENCES books (id);
+ALTER TABLE loans ADD CONSTRAINT FKno9pxih9hl0vta1tbcinnhy5i
+    FOREIGN KEY (student_id) REFERENCES students (id);
+ALTER TABLE returns ADD CONSTRAINT FKn896610u5vxmnit5575jfgce7
+    FOREIGN KEY (loan_id) REFERENCES loans (id);
@@ -0,0 +1,34 @@
+-- =====================================================
+-- V2: índices para las consultas de los repositorios
+-- InnoDB agrega el id (PK) al final de cada índice secundario, así
+-- (columna) también sirve para el keyset ORDER BY columna, id.
+-- =====================================================
+
+-- LoanRepository.findActiveLoansByStudentAndBook / findActivePairs
+CREATE INDEX idx_loans_student_book_state ON loans (student_id, book_id, state);
+-- LoanRepository.findActiveLoansByBook (validaciones de inventario)
+CREATE INDEX idx_loans_book_state ON loans (book_id, state);
+-- OverdueLoanSweeper: state IN ('ACTIVE', 'OVERDUE') AND due_date < hoy
+CREATE INDEX idx_loans_state_due_date ON loans (state, due_date);
+-- LoanRepository.countPerMonthSince (cubre la consulta) y orden por dateLoan
+CREATE INDEX idx_loans_date_loan ON loans (date_loan);
+
+-- ReturnRepository.countPerMonthSince (cubre la consulta) y orden por dateReturn
+CREATE INDEX idx_returns_date_return ON returns (date_return);
+
+-- BookRepository.findByTitleAndAuthorId (duplicados) y orden por title
+CREATE INDEX idx_books_title_author ON books (title, author_id);
+
+-- StudentRepository.existsByEmail / existsByPhone
+CREATE INDEX idx_students_email ON students (email);
+CREATE INDEX idx_students_phone ON students (phone);
+-- Orden por lastName en el listado paginado
+CREATE INDEX idx_students_last_name ON students (last_name);
+
+-- AuthorRepository.existsByEmail
+CREATE INDEX idx_authors_email ON authors (email);
+-- Orden por lastName en el listado paginado
+CREATE INDEX idx_authors_last_name ON authors (last_name);
+
+-- Orden por lastUpdated en el listado paginado de inventario
+CREATE INDEX idx_inventory_last_updated ON inventory (last_updated);
@@ -0,0 +1,15 @@
+-- =====================================================
+-- V3: unicidad en la BD de email/teléfono de estudiantes y email de autores
+-- Los servicios lo pre-verifican en memoria (UniquenessGuard); estos índices
+-- son la autoridad final (altas concurrentes o de otra instancia).
+-- ⚠️ Falla si ya hay valores repetidos: depurarlos antes de migrar.
+-- Reemplazan a los índices simples de V2 sobre las mismas columnas.
+-- =====================================================
+
+ALTER TABLE students ADD CONSTRAINT uk_students_email UNIQUE (email);
+ALTER TABLE students ADD CONSTRAINT uk_students_phone UNIQUE (phone);
+ALTER TABLE authors ADD CONSTRAINT uk_authors_email UNIQUE (email);
+
+DROP INDEX idx_students_email ON students;
+DROP INDEX idx_students_phone ON students;
+DROP INDEX idx_authors_email ON authors;
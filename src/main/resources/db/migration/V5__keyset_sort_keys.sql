@@ -0,0 +1,31 @@
+-- =====================================================
+-- V5: claves de orden de los listados (keyset) sin NULL y con índice
+-- "clave > valor" nunca es verdadero para NULL: esas filas desaparecerían
+-- del listado. Cada clave permitida en los SORT_KEYS de los servicios es
+-- NOT NULL y tiene un índice (clave, id) que sirve el ORDER BY clave, id.
+-- Las solicitudes ya exigían estos campos; se rellenan solo filas antiguas.
+-- =====================================================
+
+-- Libros: orden por title (idx_books_title_author no sirve: author_id va antes que id)
+UPDATE books SET title = '' WHERE title IS NULL;
+ALTER TABLE books MODIFY title VARCHAR(255) NOT NULL;
+CREATE INDEX idx_books_title ON books (title, id);
+
+-- Autores y estudiantes: orden por lastName (idx_*_last_name de V2)
+UPDATE authors SET last_name = '' WHERE last_name IS NULL;
+ALTER TABLE authors MODIFY last_name VARCHAR(255) NOT NULL;
+UPDATE students SET last_name = '' WHERE last_name IS NULL;
+ALTER TABLE students MODIFY last_name VARCHAR(255) NOT NULL;
+
+-- Préstamos: orden por dateLoan (idx_loans_date_loan de V2)
+UPDATE loans SET date_loan = COALESCE(due_date, CURRENT_DATE) WHERE date_loan IS NULL;
+ALTER TABLE loans MODIFY date_loan DATE NOT NULL;
+
+-- Devoluciones: orden por dateReturn (idx_returns_date_return de V2); sin fecha se toma el vencimiento del préstamo
+UPDATE returns SET date_return = COALESCE(
+    (SELECT l.due_date FROM loans l WHERE l.id = returns.loan_id), CURRENT_DATE)
+WHERE date_return IS NULL;
+ALTER TABLE returns MODIFY date_return DATE NOT NULL;
+
+-- Inventario: solo se ordena por id (un índice en available_copies encarecería cada préstamo)
+DROP INDEX idx_inventory_last_updated ON inventory;